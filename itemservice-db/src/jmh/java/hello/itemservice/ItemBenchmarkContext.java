@@ -0,0 +1,46 @@
+package hello.itemservice;
+
+import hello.itemservice.config.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * 벤치마크용 스프링 컨텍스트, 설정 클래스 이름으로 ItemRepository 구현을 골라 H2 메모리 DB 로 띄운다.
+ */
+@EnableAutoConfiguration
+public class ItemBenchmarkContext {
+
+    public static final Map<String, Class<?>> CONFIGS = Map.of(
+            "MemoryConfig", MemoryConfig.class,
+            "JdbcTemplateV1Config", JdbcTemplateV1Config.class,
+            "JdbcTemplateV2Config", JdbcTemplateV2Config.class,
+            "JdbcTemplateV3Config", JdbcTemplateV3Config.class,
+            "MyBatisConfig", MyBatisConfig.class,
+            "JpaConfig", JpaConfig.class,
+            "SpringDataJpaConfig", SpringDataJpaConfig.class,
+            "QuerydslConfig", QuerydslConfig.class,
+            "V2Config", V2Config.class);
+
+    public static ConfigurableApplicationContext start(String configName) {
+        Class<?> config = CONFIGS.get(configName);
+        if (config == null) {
+            throw new IllegalArgumentException("unknown config: " + configName);
+        }
+        //커맨드라인 인자는 application.properties 보다 우선한다
+        return new SpringApplicationBuilder(ItemBenchmarkContext.class, config)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:" + configName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.springframework.jdbc=warn",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn",
+                        "--logging.level.hello.itemservice=warn");
+    }
+}
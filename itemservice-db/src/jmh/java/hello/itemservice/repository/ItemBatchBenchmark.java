@@ -0,0 +1,75 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.ItemBenchmarkContext;
+import hello.itemservice.domain.Item;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 구현별 단건 save 반복과 saveAll/updateAll 처리량 비교, 한 번의 호출이 BATCH_ITEMS 건을 처리한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ItemBatchBenchmark {
+
+    private static final int BATCH_ITEMS = 1000;
+
+    @Param({"JdbcTemplateV1Config", "JdbcTemplateV2Config", "JdbcTemplateV3Config", "MyBatisConfig",
+            "JpaConfig", "SpringDataJpaConfig", "QuerydslConfig", "MemoryConfig"})
+    String config;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    Map<Long, ItemUpdateDto> updateParams;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ItemBenchmarkContext.start(config);
+        itemRepository = context.getBean(ItemRepository.class);
+
+        updateParams = new HashMap<>();
+        for (Item item : itemRepository.saveAll(newItems())) {
+            updateParams.put(item.getId(), new ItemUpdateDto("updated", item.getPrice() + 1, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ITEMS)
+    public void saveOneByOne() {
+        for (Item item : newItems()) {
+            itemRepository.save(item);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ITEMS)
+    public List<Item> saveAll() {
+        return itemRepository.saveAll(newItems());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ITEMS)
+    public void updateAll() {
+        itemRepository.updateAll(updateParams);
+    }
+
+    private static List<Item> newItems() {
+        List<Item> items = new ArrayList<>(BATCH_ITEMS);
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            items.add(new Item("item" + i, 1000 + i, 10));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,99 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.ItemBenchmarkContext;
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 9개 설정에 같은 작업을 실행해 비교한다.
+ * 작업은 ItemService 를 통해 실행한다, V2Config 의 ItemRepository 빈은 Querydsl 구현이고
+ * V2 전용 경로(ItemRepositoryV2 + ItemQueryRepositoryV2)는 ItemServiceV2 로만 탄다.
+ * 스레드 수별 비교 리포트는 ItemRepositoryBenchmarkRunner 로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRepositoryBenchmark {
+
+    private static final int ITEM_COUNT = 10_000;
+    private static final int NAME_KINDS = 100;
+
+    @Param({"MemoryConfig", "JdbcTemplateV1Config", "JdbcTemplateV2Config", "JdbcTemplateV3Config",
+            "MyBatisConfig", "JpaConfig", "SpringDataJpaConfig", "QuerydslConfig", "V2Config"})
+    String config;
+
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    //미리 넣어둔 상품 id, 단건 조회/수정 대상
+    long[] ids;
+    //상품명 1%, 가격 절반 조건 -> 약 50건
+    ItemSearchCond searchCond = new ItemSearchCond("item42", ITEM_COUNT / 2);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ItemBenchmarkContext.start(config);
+        itemService = context.getBean(ItemService.class);
+
+        //초기 데이터는 대량 저장이 있는 ItemRepository 로 넣는다, 모든 설정이 같은 item 테이블을 쓴다
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(new Item("item" + i % NAME_KINDS, i, 10));
+        }
+        ids = itemRepository.saveAll(items).stream().mapToLong(Item::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemService.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemService.findItems(searchCond);
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemService.save(new Item("new", 1000, 1));
+    }
+
+    @Benchmark
+    public void update() {
+        itemService.update(randomId(), newUpdateParam());
+    }
+
+    //읽기 90%, 쓰기 10%
+    @Benchmark
+    public Object mixed() {
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+            itemService.update(randomId(), newUpdateParam());
+            return null;
+        }
+        return itemService.findById(randomId());
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static ItemUpdateDto newUpdateParam() {
+        return new ItemUpdateDto("updated", ThreadLocalRandom.current().nextInt(ITEM_COUNT), 10);
+    }
+}
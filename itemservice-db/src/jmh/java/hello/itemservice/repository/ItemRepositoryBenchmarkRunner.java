@@ -0,0 +1,85 @@
+package hello.itemservice.repository;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ItemRepositoryBenchmark 를 스레드 수별로 실행하고 설정 x 작업 x 스레드 수 결과를 하나의 CSV 로 모은다.
+ * 인자: [출력 파일] [스레드 수 목록, 기본 1,4,16]
+ */
+public class ItemRepositoryBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : "build/reports/jmh/item-repository.csv");
+        int[] threadCounts = Arrays.stream((args.length > 1 ? args[1] : "1,4,16").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        List<Row> rows = new ArrayList<>();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(ItemRepositoryBenchmark.class.getName())
+                    .threads(threads)
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                rows.add(new Row(result, threads));
+            }
+        }
+        rows.sort(Comparator.comparing((Row row) -> row.benchmark)
+                .thenComparingInt(row -> row.threads)
+                .thenComparing(row -> -row.score));
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output))) {
+            writer.println("benchmark,threads,config,score,error,unit");
+            for (Row row : rows) {
+                writer.println(row.toCsv());
+            }
+        }
+        System.out.println("report: " + output.toAbsolutePath());
+    }
+
+    private static class Row {
+
+        final String benchmark;
+        final int threads;
+        final String config;
+        final double score;
+        final double error;
+        final String unit;
+
+        Row(RunResult result, int threads) {
+            Result<?> primary = result.getPrimaryResult();
+            String label = result.getParams().getBenchmark();
+            this.benchmark = label.substring(label.lastIndexOf('.') + 1);
+            this.threads = threads;
+            this.config = result.getParams().getParam("config");
+            this.score = primary.getScore();
+            this.error = primary.getScoreError();
+            this.unit = primary.getScoreUnit();
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%s,%.3f,%.3f,%s", benchmark, threads, config, score, error, unit);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호출마다 SQL 을 조립하고 BeanPropertyRowMapper 를 새로 만드는 기존 방식과
+ * 미리 만든 SQL + 재사용 매퍼 비교 (H2 메모리 DB), gc 프로파일러로 호출당 할당량도 함께 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JdbcFindAllBenchmark {
+
+    private static final int ITEM_COUNT = 10_000;
+
+    //0: 조건 없음, 1: itemName, 2: maxPrice, 3: 둘 다
+    @Param({"1", "2", "3"})
+    int shape;
+
+    NamedParameterJdbcTemplate template;
+    JdbcTemplateRepositoryV3 repository;
+    ItemSearchCond cond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //커넥션 획득 비용을 빼고 쿼리 준비/매핑 비용만 비교
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:findall;DB_CLOSE_DELAY=-1", "sa", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists item");
+        jdbcTemplate.execute("create table item (id bigint generated by default as identity, " +
+                "item_name varchar(10), price integer, quantity integer, primary key (id))");
+
+        List<Object[]> rows = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            rows.add(new Object[]{"item" + (i % 100), i, 1});
+        }
+        jdbcTemplate.batchUpdate("insert into item(item_name, price, quantity) values (?,?,?)", rows);
+
+        template = new NamedParameterJdbcTemplate(dataSource);
+        repository = new JdbcTemplateRepositoryV3(dataSource);
+        cond = new ItemSearchCond((shape & 1) != 0 ? "item42" : null, (shape & 2) != 0 ? 500 : null);
+    }
+
+    @Benchmark
+    public List<Item> precompiled() {
+        return repository.findAll(cond);
+    }
+
+    @Benchmark
+    public List<Item> legacy() {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+
+        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
+
+        String sql = "select id, item_name, price, quantity from item";
+        if (StringUtils.hasText(itemName) || maxPrice != null) {
+            sql += " where";
+        }
+        boolean andFlag = false;
+        if (StringUtils.hasText(itemName)) {
+            sql += " item_name like concat('%',:itemName,'%')";
+            andFlag = true;
+        }
+        if (maxPrice != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+            sql += " price <= :maxPrice";
+        }
+        return template.query(sql, param, BeanPropertyRowMapper.newInstance(Item.class));
+    }
+}
@@ -0,0 +1,63 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 깊은 페이지에서 OFFSET 과 키셋 페이징 지연 시간 비교 (H2 메모리 DB)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeysetPaginationBenchmark {
+
+    private static final int ITEM_COUNT = 200_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "1000", "9000"})
+    int page;
+
+    JdbcTemplate template;
+    JdbcTemplateRepositoryV3 repository;
+    ItemSearchCond keysetCond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1", "sa", "");
+        template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists item");
+        template.execute("create table item (id bigint generated by default as identity, " +
+                "item_name varchar(10), price integer, quantity integer, primary key (id))");
+
+        List<Object[]> rows = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            rows.add(new Object[]{"item" + (i % 1000), i % 100_000, 1});
+        }
+        template.batchUpdate("insert into item(item_name, price, quantity) values (?,?,?)", rows);
+
+        repository = new JdbcTemplateRepositoryV3(dataSource);
+        //키셋 조건은 이전 페이지 마지막 id 만 알면 된다
+        keysetCond = new ItemSearchCond(null, null, PAGE_SIZE, (long) page * PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> offset() {
+        return template.query("select id, item_name, price, quantity from item order by id limit ? offset ?",
+                BeanPropertyRowMapper.newInstance(Item.class), PAGE_SIZE, page * PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ItemSlice keyset() {
+        return repository.findSlice(keysetCond);
+    }
+}
@@ -0,0 +1,116 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ObjectUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 기존 HashMap 전체 스캔 구현과 가격 인덱스 구현 비교 (1M 건)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemoryItemRepositoryBenchmark {
+
+    private static final int ITEM_COUNT = 1_000_000;
+    private static final int MAX_PRICE = 1_000_000;
+
+    @Param({"1000", "100000"})
+    int maxPrice;
+
+    MemoryItemRepository indexed;
+    HashMapItemRepository legacy;
+    ItemSearchCond priceCond;
+    ItemSearchCond namePriceCond;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        indexed = new MemoryItemRepository();
+        indexed.clearStore();
+        legacy = new HashMapItemRepository();
+
+        Random random = new Random(42);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            int price = random.nextInt(MAX_PRICE);
+            String name = "item" + (i % 1000);
+            indexed.save(new Item(name, price, 1));
+            legacy.save(new Item(name, price, 1));
+        }
+        priceCond = new ItemSearchCond(null, maxPrice);
+        namePriceCond = new ItemSearchCond("item12", maxPrice);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        indexed.clearStore();
+    }
+
+    @Benchmark
+    public List<Item> indexedFindByMaxPrice() {
+        return indexed.findAll(priceCond);
+    }
+
+    @Benchmark
+    public List<Item> legacyFindByMaxPrice() {
+        return legacy.findAll(priceCond);
+    }
+
+    @Benchmark
+    public List<Item> indexedFindByNameAndMaxPrice() {
+        return indexed.findAll(namePriceCond);
+    }
+
+    @Benchmark
+    public List<Item> legacyFindByNameAndMaxPrice() {
+        return legacy.findAll(namePriceCond);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Item> indexedFindById() {
+        return indexed.findById(ThreadLocalRandom.current().nextLong(1, ITEM_COUNT));
+    }
+
+    /**
+     * 변경 전 MemoryItemRepository 구현 (비교 기준)
+     */
+    static class HashMapItemRepository {
+
+        private final Map<Long, Item> store = new HashMap<>();
+        private long sequence = 0L;
+
+        Item save(Item item) {
+            item.setId(++sequence);
+            store.put(item.getId(), item);
+            return item;
+        }
+
+        List<Item> findAll(ItemSearchCond cond) {
+            String itemName = cond.getItemName();
+            Integer maxPrice = cond.getMaxPrice();
+            return store.values().stream()
+                    .filter(item -> {
+                        if (ObjectUtils.isEmpty(itemName)) {
+                            return true;
+                        }
+                        return item.getItemName().contains(itemName);
+                    }).filter(item -> {
+                        if (maxPrice == null) {
+                            return true;
+                        }
+                        return item.getPrice() <= maxPrice;
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package hello.itemservice.service;
+
+import hello.itemservice.ItemBenchmarkContext;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemRowSlice;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 1만 건 중 목록 한 페이지(최대 크기) 조회: 엔티티 조회(영속성 컨텍스트 + 스냅샷)와 DTO 프로젝션의 호출당 CPU/할당량 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemProjectionBenchmark {
+
+    private static final int ITEM_COUNT = 10_000;
+
+    ConfigurableApplicationContext context;
+    ItemServiceV2 itemService;
+    ItemSearchCond cond = new ItemSearchCond(null, null, ItemSearchCond.MAX_PAGE_SIZE, null);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ItemBenchmarkContext.start("V2Config");
+        itemService = context.getBean(ItemServiceV2.class);
+
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(new Item("item" + i % 100, i, 1));
+        }
+        context.getBean(ItemRepository.class).saveAll(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemSlice entities() {
+        return itemService.findItemSlice(cond);
+    }
+
+    @Benchmark
+    public ItemRowSlice projection() {
+        return itemService.findItemRowSlice(cond);
+    }
+}
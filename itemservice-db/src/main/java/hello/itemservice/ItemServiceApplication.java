@@ -22,7 +22,7 @@ import javax.xml.crypto.Data;
 //@Import(JpaConfig.class)
 //@Import(SpringDataJpaConfig.class)
 //@Import(QuerydslConfig.class)
-@Import(V2Config.class)
+@Import({V2Config.class, CacheConfig.class, AsyncConfig.class})
 @Slf4j
 @SpringBootApplication(scanBasePackages = "hello.itemservice.web")
 public class ItemServiceApplication {
@@ -0,0 +1,54 @@
+package hello.itemservice.config;
+
+import hello.itemservice.service.AsyncItemService;
+import hello.itemservice.service.ItemService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * AsyncItemService 와 DB 전용 스레드 풀 등록, 다른 설정이 등록한 ItemService(cache 프로필이면 캐시)를 감싼다.
+ * Java 11 이라 가상 스레드 대신 커넥션 풀 크기만큼의 고정 스레드 풀을 사용한다.
+ *
+ * Executor 빈이 하나라도 있으면 부트가 applicationTaskExecutor 를 만들지 않아 MVC 비동기 처리가
+ * SimpleAsyncTaskExecutor 로 떨어지므로, 부트와 같은 방식으로 applicationTaskExecutor 도 함께 등록한다.
+ */
+@Configuration
+public class AsyncConfig {
+
+    //HikariCP 기본값과 같다
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${item.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        //spring.task.execution.* 설정을 그대로 따른다
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor itemDbExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(connectionPoolSize);
+        executor.setMaxPoolSize(connectionPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("item-db-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public AsyncItemService asyncItemService(ItemService itemService,
+                                             @Qualifier("itemDbExecutor") ThreadPoolTaskExecutor itemDbExecutor) {
+        return new AsyncItemService(itemService, itemDbExecutor);
+    }
+}
@@ -0,0 +1,42 @@
+package hello.itemservice.config;
+
+import hello.itemservice.service.CachingItemService;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.cache.LruCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * cache 프로필에서 다른 설정(JdbcTemplateV3Config, JpaConfig ...)이 등록한 itemService 를 캐시로 감싼다.
+ */
+@Configuration
+@Profile("cache")
+public class CacheConfig {
+
+    @Value("${item.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${item.cache.item-ttl:10m}")
+    private Duration itemTtl;
+
+    @Value("${item.cache.search-max-size:1000}")
+    private int searchMaxSize;
+
+    @Value("${item.cache.search-ttl:5s}")
+    private Duration searchTtl;
+
+    @Bean
+    @Primary
+    public CachingItemService cachingItemService(@Qualifier("itemService") ItemService itemService) {
+        return new CachingItemService(itemService,
+                new LruCache<>(maxSize, itemTtl),
+                new LruCache<>(searchMaxSize, searchTtl),
+                new LruCache<>(searchMaxSize, searchTtl));
+    }
+}
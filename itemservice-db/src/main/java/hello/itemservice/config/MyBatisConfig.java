@@ -6,6 +6,7 @@ import hello.itemservice.repository.mybatis.MyBatisItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,6 +16,7 @@ import javax.sql.DataSource;
 @RequiredArgsConstructor
 public class MyBatisConfig {
     private final ItemMapper itemMapper;
+    private final SqlSessionFactory sqlSessionFactory;
 
     @Bean
     public ItemService itemService() {
@@ -23,6 +25,6 @@ public class MyBatisConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new MyBatisItemRepository(itemMapper);
+        return new MyBatisItemRepository(itemMapper, sqlSessionFactory);
     }
 }
@@ -6,10 +6,16 @@ import javax.persistence.*;
 
 @Data
 @Entity
+//itemName 은 like '%x%' 검색뿐이라 인덱스를 두지 않는다
+@Table(indexes = @Index(name = "idx_item_price", columnList = "price"))
+@SequenceGenerator(name = "item_seq_generator", sequenceName = "item_seq", allocationSize = 50)
 public class Item {
 
+    //IDENTITY 는 insert 배치가 불가능하므로 시퀀스 사용 (pooled-lo, 50개 단위 할당)
+    //JDBC/MyBatis 로 저장하는 경우를 위해 컬럼 기본값도 같은 시퀀스로 지정
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq_generator")
+    @Column(columnDefinition = "bigint default next value for item_seq")
     private Long id;
 
     @Column(name = "item_name", length = 10)
@@ -0,0 +1,14 @@
+package hello.itemservice.repository;
+
+import lombok.Value;
+
+/**
+ * 상품 목록 화면용 읽기 전용 DTO, 엔티티와 달리 영속성 컨텍스트에 올라가지 않는다.
+ */
+@Value
+public class ItemListRow {
+    Long id;
+    String itemName;
+    Integer price;
+    Integer quantity;
+}
@@ -2,7 +2,9 @@ package hello.itemservice.repository;
 
 import hello.itemservice.domain.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ItemRepository {
@@ -11,8 +13,19 @@ public interface ItemRepository {
 
     void update(Long itemId, ItemUpdateDto updateParam);
 
+    //대량 저장, 저장된 item 에는 id 가 채워진다
+    List<Item> saveAll(Collection<Item> items);
+
+    //대량 수정, itemId -> 수정 값
+    void updateAll(Map<Long, ItemUpdateDto> updateParams);
+
     Optional<Item> findById(Long id);
 
+    //id 목록을 in 쿼리 한 번으로 조회, id 오름차순이고 없는 id 는 결과에서 빠진다
+    List<Item> findAllByIds(Collection<Long> ids);
+
     List<Item> findAll(ItemSearchCond cond);
 
+    ItemSlice findSlice(ItemSearchCond cond);
+
 }
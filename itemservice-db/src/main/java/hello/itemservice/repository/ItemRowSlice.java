@@ -0,0 +1,43 @@
+package hello.itemservice.repository;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 목록 화면용 키셋 페이징 결과, ItemSlice 와 같지만 엔티티 대신 ItemListRow 를 담는다.
+ */
+@Getter
+public class ItemRowSlice {
+
+    private final List<ItemListRow> content;
+    private final boolean hasNext;
+    private final Long nextAfterId;
+
+    public ItemRowSlice(List<ItemListRow> content, boolean hasNext) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextAfterId = content.isEmpty() ? null : content.get(content.size() - 1).getId();
+    }
+
+    /**
+     * pageSize + 1 건을 조회한 결과로 다음 페이지 존재 여부를 판단
+     */
+    public static ItemRowSlice of(List<ItemListRow> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new ItemRowSlice(List.copyOf(rows.subList(0, pageSize)), true);
+        }
+        return new ItemRowSlice(rows, false);
+    }
+
+    /**
+     * DTO 조회가 없는 저장소는 엔티티 페이지를 행으로 바꿔서 쓴다
+     */
+    public static ItemRowSlice from(ItemSlice slice) {
+        List<ItemListRow> rows = new ArrayList<>(slice.getContent().size());
+        slice.getContent().forEach(item ->
+                rows.add(new ItemListRow(item.getId(), item.getItemName(), item.getPrice(), item.getQuantity())));
+        return new ItemRowSlice(rows, slice.isHasNext());
+    }
+}
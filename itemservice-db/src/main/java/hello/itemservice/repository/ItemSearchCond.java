@@ -5,9 +5,16 @@ import lombok.Data;
 @Data
 public class ItemSearchCond {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private String itemName;
     private Integer maxPrice;
 
+    //키셋 페이징: afterId 보다 큰 id 를 pageSize 만큼 조회
+    private Integer pageSize;
+    private Long afterId;
+
     public ItemSearchCond() {
     }
 
@@ -15,4 +22,21 @@ public class ItemSearchCond {
         this.itemName = itemName;
         this.maxPrice = maxPrice;
     }
+
+    public ItemSearchCond(String itemName, Integer maxPrice, Integer pageSize, Long afterId) {
+        this.itemName = itemName;
+        this.maxPrice = maxPrice;
+        this.pageSize = pageSize;
+        this.afterId = afterId;
+    }
+
+    /**
+     * pageSize 가 없으면 기본값, 최대값을 넘으면 최대값
+     */
+    public int resolvePageSize() {
+        if (pageSize == null || pageSize <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
 }
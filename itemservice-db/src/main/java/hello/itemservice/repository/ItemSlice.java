@@ -0,0 +1,33 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과, 다음 페이지는 nextAfterId 를 afterId 로 넘겨 조회한다.
+ */
+@Getter
+public class ItemSlice {
+
+    private final List<Item> content;
+    private final boolean hasNext;
+    private final Long nextAfterId;
+
+    public ItemSlice(List<Item> content, boolean hasNext) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextAfterId = content.isEmpty() ? null : content.get(content.size() - 1).getId();
+    }
+
+    /**
+     * pageSize + 1 건을 조회한 결과로 다음 페이지 존재 여부를 판단
+     */
+    public static ItemSlice of(List<Item> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new ItemSlice(List.copyOf(rows.subList(0, pageSize)), true);
+        }
+        return new ItemSlice(rows, false);
+    }
+}
@@ -0,0 +1,119 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.StringUtils;
+
+/**
+ * JdbcTemplateRepositoryV1~V3 공용 SQL
+ * 검색 조건 조합은 itemName 유무 x maxPrice 유무 4가지뿐이므로 호출마다 문자열을 조립하지 않고 미리 만들어 둔다.
+ */
+final class ItemSql {
+
+    static final String SELECT = "select id, item_name, price, quantity from item";
+    static final String NAMED_FIND_BY_IDS = SELECT + " where id in (:ids) order by id";
+
+    //조건 조합 비트
+    static final int HAS_NAME = 1;
+    static final int HAS_PRICE = 2;
+
+    //? 파라미터 (V1): 파라미터 순서는 afterId, itemName, maxPrice, limit
+    private static final String[] POSITIONAL_FIND_ALL = new String[4];
+    private static final String[] POSITIONAL_FIND_SLICE = new String[4];
+    //이름 있는 파라미터 (V2, V3)
+    private static final String[] NAMED_FIND_ALL = new String[4];
+    private static final String[] NAMED_FIND_SLICE = new String[4];
+
+    static {
+        for (int shape = 0; shape < 4; shape++) {
+            POSITIONAL_FIND_ALL[shape] = findAll(shape, "?", "?");
+            POSITIONAL_FIND_SLICE[shape] = findSlice(shape, "?", "?", "?", "?");
+            NAMED_FIND_ALL[shape] = findAll(shape, ":itemName", ":maxPrice");
+            NAMED_FIND_SLICE[shape] = findSlice(shape, ":afterId", ":itemName", ":maxPrice", ":limit");
+        }
+    }
+
+    /**
+     * 컬럼 순서 기반 매퍼, 리플렉션 없이 재사용한다.
+     */
+    static final RowMapper<Item> ITEM_ROW_MAPPER = (rs, rowNum) -> {
+        Item item = new Item();
+        item.setId(rs.getLong(1));
+        item.setItemName(rs.getString(2));
+        int price = rs.getInt(3);
+        item.setPrice(rs.wasNull() ? null : price);
+        int quantity = rs.getInt(4);
+        item.setQuantity(rs.wasNull() ? null : quantity);
+        return item;
+    };
+
+    private ItemSql() {
+    }
+
+    static int shape(ItemSearchCond cond) {
+        int shape = 0;
+        if (StringUtils.hasText(cond.getItemName())) {
+            shape |= HAS_NAME;
+        }
+        if (cond.getMaxPrice() != null) {
+            shape |= HAS_PRICE;
+        }
+        return shape;
+    }
+
+    static boolean hasName(int shape) {
+        return (shape & HAS_NAME) != 0;
+    }
+
+    static boolean hasPrice(int shape) {
+        return (shape & HAS_PRICE) != 0;
+    }
+
+    static String positionalFindAll(int shape) {
+        return POSITIONAL_FIND_ALL[shape];
+    }
+
+    static String positionalFindSlice(int shape) {
+        return POSITIONAL_FIND_SLICE[shape];
+    }
+
+    static String positionalFindByIds(int count) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" where id in (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(") order by id").toString();
+    }
+
+    static String namedFindAll(int shape) {
+        return NAMED_FIND_ALL[shape];
+    }
+
+    static String namedFindSlice(int shape) {
+        return NAMED_FIND_SLICE[shape];
+    }
+
+    private static String findAll(int shape, String itemName, String maxPrice) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (hasName(shape)) {
+            sql.append(" where item_name like concat('%',").append(itemName).append(",'%')");
+        }
+        if (hasPrice(shape)) {
+            sql.append(hasName(shape) ? " and" : " where").append(" price <= ").append(maxPrice);
+        }
+        return sql.toString();
+    }
+
+    private static String findSlice(int shape, String afterId, String itemName, String maxPrice, String limit) {
+        //키셋 페이징: OFFSET 없이 id 인덱스로 바로 이동
+        StringBuilder sql = new StringBuilder(SELECT).append(" where id > ").append(afterId);
+        if (hasName(shape)) {
+            sql.append(" and item_name like concat('%',").append(itemName).append(",'%')");
+        }
+        if (hasPrice(shape)) {
+            sql.append(" and price <= ").append(maxPrice);
+        }
+        return sql.append(" order by id limit ").append(limit).toString();
+    }
+}
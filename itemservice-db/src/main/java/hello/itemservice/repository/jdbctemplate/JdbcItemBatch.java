@@ -0,0 +1,58 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JdbcTemplate 리포지토리 공용 배치 insert
+ * JdbcTemplate.batchUpdate 는 생성된 키를 돌려주지 않으므로 커넥션을 직접 받아 executeBatch 후 getGeneratedKeys 로 id 를 채운다.
+ */
+class JdbcItemBatch {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "insert into item(item_name, price, quantity) values(?,?,?)";
+
+    private JdbcItemBatch() {
+    }
+
+    static List<Item> insert(JdbcOperations template, Collection<Item> items) {
+        List<Item> list = new ArrayList<>(items);
+        template.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+                    List<Item> chunk = list.subList(from, Math.min(from + BATCH_SIZE, list.size()));
+                    for (Item item : chunk) {
+                        ps.setString(1, item.getItemName());
+                        //가격, 수량은 null 일 수 있다
+                        ps.setObject(2, item.getPrice(), Types.INTEGER);
+                        ps.setObject(3, item.getQuantity(), Types.INTEGER);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    //자동 증가 키
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Item item : chunk) {
+                            if (!keys.next()) {
+                                throw new DataRetrievalFailureException("generated key not returned for " + item);
+                            }
+                            item.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        return list;
+    }
+}
@@ -3,19 +3,21 @@ package hello.itemservice.repository.jdbctemplate;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -35,8 +37,8 @@ public class JdbcTemplateRepositoryV1 implements ItemRepository {
             //자동 증가 키
             PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
             ps.setString(1, item.getItemName());
-            ps.setInt(2, item.getPrice());
-            ps.setInt(3, item.getQuantity());
+            ps.setObject(2, item.getPrice(), Types.INTEGER);
+            ps.setObject(3, item.getQuantity(), Types.INTEGER);
             return ps;
         }, keyHolder);
 
@@ -55,11 +57,28 @@ public class JdbcTemplateRepositoryV1 implements ItemRepository {
                 itemId);
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        return JdbcItemBatch.insert(template, items);
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        String sql = "update item set item_name=?, price=?, quantity=? where id=?";
+        template.batchUpdate(sql, updateParams.entrySet(), JdbcItemBatch.BATCH_SIZE, (ps, entry) -> {
+            ItemUpdateDto updateParam = entry.getValue();
+            ps.setString(1, updateParam.getItemName());
+            ps.setObject(2, updateParam.getPrice(), Types.INTEGER);
+            ps.setObject(3, updateParam.getQuantity(), Types.INTEGER);
+            ps.setLong(4, entry.getKey());
+        });
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         String sql = "select id, item_name, price, quantity from item where id =?";
         try {
-            Item item = template.queryForObject(sql, itemRowMapper(), id);
+            Item item = template.queryForObject(sql, ItemSql.ITEM_ROW_MAPPER, id);
             return Optional.ofNullable(item);
         } catch (EmptyResultDataAccessException e) {
             return Optional.empty();
@@ -67,44 +86,51 @@ public class JdbcTemplateRepositoryV1 implements ItemRepository {
     }
 
     @Override
-    public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = ItemSql.positionalFindByIds(ids.size());
+        return template.query(sql, ItemSql.ITEM_ROW_MAPPER, ids.toArray());
+    }
 
-        String sql = "select id, item_name, price, quantity from item";
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        int shape = ItemSql.shape(cond);
+        String sql = ItemSql.positionalFindAll(shape);
 
-        //동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
-            sql += " where";
+        Object[] param;
+        if (ItemSql.hasName(shape) && ItemSql.hasPrice(shape)) {
+            param = new Object[]{cond.getItemName(), cond.getMaxPrice()};
+        } else if (ItemSql.hasName(shape)) {
+            param = new Object[]{cond.getItemName()};
+        } else if (ItemSql.hasPrice(shape)) {
+            param = new Object[]{cond.getMaxPrice()};
+        } else {
+            param = new Object[0];
         }
+        log.debug("sql={}", sql);
+        return template.query(sql, ItemSql.ITEM_ROW_MAPPER, param);
+    }
 
-        boolean andFlag = false;
-        List<Object> param = new ArrayList<>();
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        int shape = ItemSql.shape(cond);
+        int pageSize = cond.resolvePageSize();
+        String sql = ItemSql.positionalFindSlice(shape);
 
-        if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',?,'%')";
-            param.add(itemName);
-            andFlag = true;
+        List<Object> param = new ArrayList<>(4);
+        param.add(cond.getAfterId() == null ? 0L : cond.getAfterId());
+        if (ItemSql.hasName(shape)) {
+            param.add(cond.getItemName());
         }
-        if (maxPrice != null) {
-            if (andFlag) {
-                sql += " and";
-            }
-            sql += " price <= ?";
-            param.add(maxPrice);
+        if (ItemSql.hasPrice(shape)) {
+            param.add(cond.getMaxPrice());
         }
-        log.info("sql={}", sql);
-        return template.query(sql, itemRowMapper(), param.toArray());
-    }
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        param.add(pageSize + 1);
 
-    private RowMapper<Item> itemRowMapper() {
-        return ((rs, rowNum) -> {
-            Item item = new Item();
-            item.setId(rs.getLong("id"));
-            item.setItemName(rs.getString("item_name"));
-            item.setPrice(rs.getInt("price"));
-            item.setQuantity(rs.getInt("quantity"));
-            return item;
-        });
+        log.debug("sql={}", sql);
+        return ItemSlice.of(template.query(sql, ItemSql.ITEM_ROW_MAPPER, param.toArray()), pageSize);
     }
 }
@@ -3,23 +3,22 @@ package hello.itemservice.repository.jdbctemplate;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,12 +60,31 @@ public class JdbcTemplateRepositoryV2 implements ItemRepository {
         template.update(sql, param);
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        return JdbcItemBatch.insert(template.getJdbcOperations(), items);
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity where id=:id";
+
+        SqlParameterSource[] params = updateParams.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("itemName", entry.getValue().getItemName())
+                        .addValue("price", entry.getValue().getPrice())
+                        .addValue("quantity", entry.getValue().getQuantity())
+                        .addValue("id", entry.getKey()))
+                .toArray(SqlParameterSource[]::new);
+        template.batchUpdate(sql, params);
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         String sql = "select id, item_name, price, quantity from item where id =:id";
         try {
             Map<String, Object> param = Map.of("id", id);
-            Item item = template.queryForObject(sql, param, itemRowMapper());
+            Item item = template.queryForObject(sql, param, ItemSql.ITEM_ROW_MAPPER);
             return Optional.ofNullable(item);
         } catch (EmptyResultDataAccessException e) {
             return Optional.empty();
@@ -74,36 +92,44 @@ public class JdbcTemplateRepositoryV2 implements ItemRepository {
     }
 
     @Override
-    public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
-
-        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
-
-        String sql = "select id, item_name, price, quantity from item";
-
-        //동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
-            sql += " where";
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        //컬렉션 파라미터는 (?, ?, ...) 로 펼쳐진다
+        return template.query(ItemSql.NAMED_FIND_BY_IDS, Map.of("ids", ids), ItemSql.ITEM_ROW_MAPPER);
+    }
 
-        boolean andFlag = false;
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        int shape = ItemSql.shape(cond);
+        String sql = ItemSql.namedFindAll(shape);
 
-        if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',:itemName,'%')";
-            andFlag = true;
+        //BeanPropertySqlParameterSource 대신 필요한 값만 직접 담는다
+        MapSqlParameterSource param = new MapSqlParameterSource();
+        if (ItemSql.hasName(shape)) {
+            param.addValue("itemName", cond.getItemName());
         }
-        if (maxPrice != null) {
-            if (andFlag) {
-                sql += " and";
-            }
-            sql += " price <= :maxPrice";
+        if (ItemSql.hasPrice(shape)) {
+            param.addValue("maxPrice", cond.getMaxPrice());
         }
-        log.info("sql={}", sql);
-        return template.query(sql, param, itemRowMapper());
+        log.debug("sql={}", sql);
+        return template.query(sql, param, ItemSql.ITEM_ROW_MAPPER);
     }
 
-    private RowMapper<Item> itemRowMapper() {
-        return BeanPropertyRowMapper.newInstance(Item.class);
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        int shape = ItemSql.shape(cond);
+        int pageSize = cond.resolvePageSize();
+        String sql = ItemSql.namedFindSlice(shape);
+
+        MapSqlParameterSource param = new MapSqlParameterSource()
+                .addValue("afterId", cond.getAfterId() == null ? 0L : cond.getAfterId())
+                .addValue("itemName", cond.getItemName())
+                .addValue("maxPrice", cond.getMaxPrice())
+                .addValue("limit", pageSize + 1); //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+
+        log.debug("sql={}", sql);
+        return ItemSlice.of(template.query(sql, param, ItemSql.ITEM_ROW_MAPPER), pageSize);
     }
 }
@@ -3,6 +3,7 @@ package hello.itemservice.repository.jpa;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
@@ -11,13 +12,19 @@ import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @Transactional
 @Repository
 public class JpaItemRepository implements ItemRepository {
+
+    private static final int BATCH_SIZE = 100;
+
     private final EntityManager em;
 
     public JpaItemRepository(EntityManager em) {
@@ -38,12 +45,52 @@ public class JpaItemRepository implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> list = new ArrayList<>(items);
+        int count = 0;
+        for (Item item : list) {
+            em.persist(item);
+            //hibernate.jdbc.batch_size 단위로 insert 를 모아서 실행하고 영속성 컨텍스트를 비운다
+            if (++count % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        return list;
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        //in 쿼리 한 번으로 조회하고 변경 감지로 update 를 배치 실행
+        List<Item> items = em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", updateParams.keySet())
+                .getResultList();
+        for (Item findItem : items) {
+            ItemUpdateDto updateParam = updateParams.get(findItem.getId());
+            findItem.setItemName(updateParam.getItemName());
+            findItem.setPrice(updateParam.getPrice());
+            findItem.setQuantity(updateParam.getQuantity());
+        }
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         Item item = em.find(Item.class, id);
         return Optional.ofNullable(item);
     }
 
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select i from Item i where i.id in :ids order by i.id", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
         String jpql = "select i from Item i ";
@@ -80,4 +127,35 @@ public class JpaItemRepository implements ItemRepository {
 
         return query.getResultList();
     }
+
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        Integer maxPrice = cond.getMaxPrice();
+        String itemName = cond.getItemName();
+        int pageSize = cond.resolvePageSize();
+
+        //키셋 페이징: OFFSET 없이 id 인덱스로 바로 이동
+        String jpql = "select i from Item i where i.id > :afterId";
+        if (StringUtils.hasText(itemName)) {
+            jpql += " and i.itemName like concat('%',:itemName,'%')";
+        }
+        if (maxPrice != null) {
+            jpql += " and i.price <= :maxPrice";
+        }
+        jpql += " order by i.id";
+
+        log.info("jpql={}", jpql);
+        TypedQuery<Item> query = em.createQuery(jpql, Item.class)
+                .setParameter("afterId", cond.getAfterId() == null ? 0L : cond.getAfterId())
+                .setMaxResults(pageSize + 1); //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+
+        if (StringUtils.hasText(itemName)) {
+            query.setParameter("itemName", itemName);
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPrice);
+        }
+
+        return ItemSlice.of(query.getResultList(), pageSize);
+    }
 }
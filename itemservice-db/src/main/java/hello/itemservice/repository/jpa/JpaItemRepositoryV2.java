@@ -3,13 +3,17 @@ package hello.itemservice.repository.jpa;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -32,11 +36,35 @@ public class JpaItemRepositoryV2 implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        return repository.saveAll(items);
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        //in 쿼리 한 번으로 조회하고 변경 감지로 update 를 배치 실행
+        for (Item findItem : repository.findAllById(updateParams.keySet())) {
+            ItemUpdateDto updateParam = updateParams.get(findItem.getId());
+            findItem.setItemName(updateParam.getItemName());
+            findItem.setPrice(updateParam.getPrice());
+            findItem.setQuantity(updateParam.getQuantity());
+        }
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         return repository.findById(id);
     }
 
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findByIdInOrderByIdAsc(ids);
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
@@ -52,4 +80,18 @@ public class JpaItemRepositoryV2 implements ItemRepository {
             return repository.findAll();
         }
     }
+
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        int pageSize = cond.resolvePageSize();
+
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        List<Item> rows = repository.findSlice(
+                cond.getAfterId() == null ? 0L : cond.getAfterId(),
+                StringUtils.hasText(itemName) ? "%" + itemName + "%" : null,
+                cond.getMaxPrice(),
+                PageRequest.of(0, pageSize + 1));
+        return ItemSlice.of(rows, pageSize);
+    }
 }
@@ -7,6 +7,7 @@ import hello.itemservice.domain.Item;
 import hello.itemservice.domain.QItem;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +16,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static hello.itemservice.domain.QItem.item;
@@ -25,6 +29,8 @@ import static hello.itemservice.domain.QItem.item;
 @Transactional
 public class JpaItemRepositoryV3 implements ItemRepository {
 
+    private static final int BATCH_SIZE = 100;
+
     private final EntityManager em;
     private final JPAQueryFactory query;
 
@@ -46,12 +52,55 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         findItem.setQuantity(updateParam.getQuantity());
     }
 
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> list = new ArrayList<>(items);
+        int count = 0;
+        for (Item item : list) {
+            em.persist(item);
+            //hibernate.jdbc.batch_size 단위로 insert 를 모아서 실행하고 영속성 컨텍스트를 비운다
+            if (++count % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        return list;
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        //in 쿼리 한 번으로 조회하고 변경 감지로 update 를 배치 실행
+        List<Item> items = query
+                .selectFrom(item)
+                .where(item.id.in(updateParams.keySet()))
+                .fetch();
+        for (Item findItem : items) {
+            ItemUpdateDto updateParam = updateParams.get(findItem.getId());
+            findItem.setItemName(updateParam.getItemName());
+            findItem.setPrice(updateParam.getPrice());
+            findItem.setQuantity(updateParam.getQuantity());
+        }
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         Item item = em.find(Item.class, id);
         return Optional.ofNullable(item);
     }
 
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return query
+                .selectFrom(item)
+                .where(item.id.in(ids))
+                .orderBy(item.id.asc())
+                .fetch();
+    }
+
 
     public List<Item> findAllOld(ItemSearchCond cond) {
         String itemName = cond.getItemName();
@@ -86,6 +135,19 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return result;
     }
 
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        int pageSize = cond.resolvePageSize();
+        List<Item> result = query
+                .select(item)
+                .from(item)
+                .where(afterId(cond.getAfterId()), likeItemName(cond.getItemName()), maxPrice(cond.getMaxPrice()))
+                .orderBy(item.id.asc())
+                .limit(pageSize + 1) //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+                .fetch();
+        return ItemSlice.of(result, pageSize);
+    }
+
     private BooleanExpression likeItemName(String itemName) {
         if (StringUtils.hasText(itemName)) {
             return item.itemName.like("%" + itemName + "%");
@@ -98,4 +160,10 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         }
         return null;
     }
+    private BooleanExpression afterId(Long afterId) {
+        if (afterId != null) {
+            return item.id.gt(afterId);
+        }
+        return null;
+    }
 }
@@ -1,10 +1,12 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
@@ -12,10 +14,20 @@ public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByPriceLessThanEqual(Integer price);
 
+    List<Item> findByIdInOrderByIdAsc(Collection<Long> ids);
+
     //쿼리 메서드
     List<Item> findByItemNameLikeAndPriceLessThanEqual(String itemName, Integer price);
 
     //쿼리 직접 실행
     @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
     List<Item> findItems(@Param("itemName") String itemName, @Param("price") Integer price);
+
+    //키셋 페이징, 조건이 없으면 null 을 넘긴다. Pageable 은 limit 용도로만 사용 (count 쿼리 없음)
+    @Query("select i from Item i where i.id > :afterId" +
+            " and (:itemName is null or i.itemName like :itemName)" +
+            " and (:price is null or i.price <= :price)" +
+            " order by i.id")
+    List<Item> findSlice(@Param("afterId") Long afterId, @Param("itemName") String itemName,
+                         @Param("price") Integer price, Pageable pageable);
 }
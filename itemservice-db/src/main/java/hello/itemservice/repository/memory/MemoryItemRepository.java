@@ -3,32 +3,73 @@ package hello.itemservice.repository.memory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.ObjectUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class MemoryItemRepository implements ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    //id 순으로 정렬된 저장소, 키셋 페이징은 tailMap 으로 처리
+    private static final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>(); //static
+    //가격 인덱스: (price, id) 순으로 정렬, maxPrice 조건은 범위 조회로 처리
+    private static final ConcurrentNavigableMap<PriceKey, Item> priceIndex = new ConcurrentSkipListMap<>(); //static
+    private static final AtomicLong sequence = new AtomicLong(); //static
+    //같은 id 의 update 를 직렬화하는 락, id 로 골라 쓴다
+    private static final Object[] updateLocks = newLocks(64); //static
+
+    private static final Comparator<Item> ID_ORDER = Comparator.comparing(Item::getId);
+    //가격 인덱스 범위가 이 건수 이하면 꺼내서 id 순 정렬, 넘으면 id 순 스캔에서 가격으로 거른다
+    private static final int SMALL_PRICE_RANGE = 1024;
 
     @Override
     public Item save(Item item) {
-        item.setId(++sequence);
+        item.setId(sequence.incrementAndGet());
         store.put(item.getId(), item);
+        indexPrice(item);
         return item;
     }
 
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        Item findItem = findById(itemId).orElseThrow();
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        //조회 중인 스레드가 변경 중인 객체를 보지 않도록 새 객체로 교체
+        //저장소 교체와 가격 인덱스 변경이 어긋나지 않도록 같은 id 의 update 는 락으로 한 번에 하나만 실행
+        synchronized (updateLocks[(int) (itemId & (updateLocks.length - 1))]) {
+            Item findItem = store.get(itemId);
+            if (findItem == null) {
+                throw new NoSuchElementException("item not found: " + itemId);
+            }
+            Item newItem = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            newItem.setId(itemId);
+
+            //새 인덱스 -> 저장소 교체 -> 옛 인덱스 제거 순서, 인덱스 조회는 저장소에 있는 객체만 결과로 쓰므로
+            //교체 전에는 옛 가격으로만, 교체 후에는 새 가격으로만 보인다
+            indexPrice(newItem);
+            store.put(itemId, newItem);
+            unindexPrice(findItem);
+        }
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> list = new ArrayList<>(items.size());
+        for (Item item : items) {
+            list.add(save(item));
+        }
+        return list;
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        updateParams.forEach(this::update);
     }
 
     @Override
@@ -36,27 +77,147 @@ public class MemoryItemRepository implements ItemRepository {
         return Optional.ofNullable(store.get(id));
     }
 
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Long id : new TreeSet<>(ids)) {
+            Item item = store.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
-        return store.values().stream()
+        if (maxPrice == null) {
+            return search(cond.getItemName(), null, null)
+                    .collect(Collectors.toList());
+        }
+        //전체 결과가 필요하므로 범위 크기와 상관없이 가격 인덱스 범위 조회
+        return filterName(findPriceRange(maxPrice, null, Integer.MAX_VALUE).stream(), cond.getItemName())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        int pageSize = cond.resolvePageSize();
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        List<Item> rows = search(cond.getItemName(), cond.getMaxPrice(), cond.getAfterId())
+                .limit(pageSize + 1)
+                .collect(Collectors.toList());
+        return ItemSlice.of(rows, pageSize);
+    }
+
+    /**
+     * 페이지 조회용 id 오름차순 결과 스트림
+     * maxPrice 가 있고 가격 범위가 작으면 가격 인덱스 범위 조회, 아니면 afterId 이후부터 저장소를 순서대로 스캔
+     * 범위가 크면 id 순 정렬 비용이 크고, 스캔은 지연 실행이라 페이지를 채울 때까지만 읽는다
+     */
+    private Stream<Item> search(String itemName, Integer maxPrice, Long afterId) {
+        Map<Long, Item> range = (afterId == null) ? store : store.tailMap(afterId, false);
+        Stream<Item> candidates;
+        if (maxPrice == null) {
+            candidates = range.values().stream();
+        } else {
+            List<Item> smallRange = findPriceRange(maxPrice, afterId, SMALL_PRICE_RANGE);
+            candidates = (smallRange != null) ? smallRange.stream() : range.values().stream()
+                    .filter(item -> item.getPrice() != null && item.getPrice() <= maxPrice);
+        }
+        return filterName(candidates, itemName);
+    }
+
+    private static Stream<Item> filterName(Stream<Item> items, String itemName) {
+        return items
                 .filter(item -> {
                     if (ObjectUtils.isEmpty(itemName)) {
                         return true;
                     }
                     return item.getItemName().contains(itemName);
-                }).filter(item -> {
-                    if (maxPrice == null) {
-                        return true;
-                    }
-                    return item.getPrice() <= maxPrice;
-                })
-                .collect(Collectors.toList());
+                });
+    }
+
+    /**
+     * 가격 인덱스에서 maxPrice 이하 상품을 id 순으로, 범위가 scanLimit 건을 넘으면 null
+     * update 중인 상품의 옛/새 인덱스 항목은 저장소에 있는 객체인지 확인해서 거른다
+     */
+    private List<Item> findPriceRange(int maxPrice, Long afterId, int scanLimit) {
+        List<Item> items = new ArrayList<>();
+        int scanned = 0;
+        for (Item item : priceIndex.headMap(PriceKey.upperBound(maxPrice), true).values()) {
+            if (++scanned > scanLimit) {
+                return null;
+            }
+            if ((afterId == null || item.getId() > afterId) && store.get(item.getId()) == item) {
+                items.add(item);
+            }
+        }
+        items.sort(ID_ORDER);
+        return items;
     }
 
     public void clearStore() {
         store.clear();
+        priceIndex.clear();
+    }
+
+    int priceIndexSize() {
+        return priceIndex.size();
+    }
+
+    private static Object[] newLocks(int size) {
+        Object[] locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private void indexPrice(Item item) {
+        if (item.getPrice() != null) {
+            priceIndex.put(new PriceKey(item.getPrice(), item.getId()), item);
+        }
+    }
+
+    private void unindexPrice(Item item) {
+        if (item.getPrice() != null) {
+            priceIndex.remove(new PriceKey(item.getPrice(), item.getId()));
+        }
     }
 
+    private static final class PriceKey implements Comparable<PriceKey> {
+
+        private final int price;
+        private final long id;
+
+        PriceKey(int price, long id) {
+            this.price = price;
+            this.id = id;
+        }
+
+        static PriceKey upperBound(int maxPrice) {
+            return new PriceKey(maxPrice, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(PriceKey o) {
+            int result = Integer.compare(price, o.price);
+            return result != 0 ? result : Long.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PriceKey)) return false;
+            PriceKey that = (PriceKey) o;
+            return price == that.price && id == that.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(price, id);
+        }
+    }
 }
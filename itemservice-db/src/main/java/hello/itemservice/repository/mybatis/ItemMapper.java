@@ -6,6 +6,7 @@ import hello.itemservice.repository.ItemUpdateDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +18,9 @@ public interface ItemMapper {
 
     List<Item> findAll(ItemSearchCond itemSearch);
 
+    List<Item> findSlice(@Param("cond") ItemSearchCond itemSearch, @Param("limit") int limit);
+
     Optional<Item> findById(Long id);
+
+    List<Item> findAllByIds(@Param("ids") Collection<Long> ids);
 }
@@ -3,18 +3,36 @@ package hello.itemservice.repository.mybatis;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
-import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-@RequiredArgsConstructor
 public class MyBatisItemRepository implements ItemRepository {
 
+    private static final int BATCH_SIZE = 1000;
+
     private final ItemMapper itemMapper;
+    //BATCH 실행기 세션, 스프링 트랜잭션에 묶여서 커밋/롤백과 커넥션을 같이 쓴다
+    //같은 트랜잭션에서 itemMapper(SIMPLE) 를 먼저 쓰면 mybatis-spring 이 실행기 변경을 거절한다 (TransientDataAccessResourceException)
+    private final ItemMapper batchMapper;
+    private final SqlSessionTemplate batchSession;
+
+    public MyBatisItemRepository(ItemMapper itemMapper, SqlSessionFactory sqlSessionFactory) {
+        this.itemMapper = itemMapper;
+        this.batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.batchMapper = batchSession.getMapper(ItemMapper.class);
+    }
 
     @Override
     public Item save(Item item) {
@@ -27,13 +45,57 @@ public class MyBatisItemRepository implements ItemRepository {
         itemMapper.update(itemId, updateParam);
     }
 
+    //트랜잭션 밖에서 호출하면 문장마다 세션을 열고 커밋해서 배치가 되지 않는다
+    @Override
+    @Transactional
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> list = new ArrayList<>(items);
+        int count = 0;
+        for (Item item : list) {
+            batchMapper.save(item);
+            if (++count % BATCH_SIZE == 0) {
+                batchSession.flushStatements(); //생성된 키는 flush 시점에 채워진다
+            }
+        }
+        batchSession.flushStatements();
+        return list;
+    }
+
+    @Override
+    @Transactional
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        int count = 0;
+        for (Map.Entry<Long, ItemUpdateDto> entry : updateParams.entrySet()) {
+            batchMapper.update(entry.getKey(), entry.getValue());
+            if (++count % BATCH_SIZE == 0) {
+                batchSession.flushStatements();
+            }
+        }
+        batchSession.flushStatements();
+    }
+
     @Override
     public Optional<Item> findById(Long id) {
         return itemMapper.findById(id);
     }
 
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return itemMapper.findAllByIds(ids);
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
         return itemMapper.findAll(cond);
     }
+
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        int pageSize = cond.resolvePageSize();
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        return ItemSlice.of(itemMapper.findSlice(cond, pageSize + 1), pageSize);
+    }
 }
@@ -0,0 +1,100 @@
+package hello.itemservice.repository.ngram;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * itemName 의 3-gram -> id 역색인
+ * 검색어의 3-gram 포스팅 리스트 교집합이 "contains" 검색의 후보 id 가 된다.
+ */
+public class TrigramIndex {
+
+    public static final int GRAM_SIZE = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> indexedNames = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String name) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+        indexedNames.put(id, name);
+        for (String gram : grams(name)) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * 이미 색인된 id 면 건너뛴다, 재색인 중 먼저 반영된 최신 값을 옛 스냅샷으로 덮지 않기 위해 사용
+     */
+    public synchronized boolean putIfAbsent(Long id, String name) {
+        if (indexedNames.containsKey(id)) {
+            return false;
+        }
+        put(id, name);
+        return true;
+    }
+
+    public synchronized void remove(Long id) {
+        String oldName = indexedNames.remove(id);
+        if (oldName == null) {
+            return;
+        }
+        for (String gram : grams(oldName)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        indexedNames.clear();
+    }
+
+    /**
+     * 검색어가 GRAM_SIZE 보다 짧으면 색인으로 후보를 좁힐 수 없으므로 false
+     */
+    public boolean supports(String keyword) {
+        return keyword != null && keyword.length() >= GRAM_SIZE;
+    }
+
+    /**
+     * 후보 id 를 오름차순으로 반환, 3-gram 이 모두 포함되어도 연속 부분 문자열이 아닐 수 있으므로 호출자가 다시 검증해야 한다.
+     */
+    public SortedSet<Long> candidates(String keyword) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(keyword)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySortedSet();
+            }
+            lists.add(ids);
+        }
+        //가장 짧은 포스팅 리스트부터 교집합
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        SortedSet<Long> result = new TreeSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    public int size() {
+        return indexedNames.size();
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,189 @@
+package hello.itemservice.repository.ngram;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 어떤 ItemRepository 든 감쌀 수 있는 3-gram 색인 데코레이터
+ * itemName 검색은 색인으로 후보 id 를 구한 뒤 해당 행만 조회하고, 나머지 조건은 그대로 위임한다.
+ * 색인은 이 데코레이터를 통한 save/update 로만 유지되므로, 기존 데이터는 reindex() 로 한 번 적재해야 한다.
+ * 후보 행은 id in 쿼리로 IN_CHUNK_SIZE 개씩 묶어서 조회한다.
+ */
+@Slf4j
+public class TrigramIndexItemRepository implements ItemRepository {
+
+    //in 절 하나에 넣을 최대 id 수
+    static final int IN_CHUNK_SIZE = 500;
+
+    private final ItemRepository target;
+    //reindex() 는 새 색인을 만든 뒤 참조만 교체한다
+    private volatile TrigramIndex index;
+    //재색인 중에는 변경을 새 색인에도 반영한다
+    private volatile TrigramIndex rebuilding;
+    //색인 반영은 읽기 락, rebuilding 지정과 교체는 쓰기 락, 반영 도중에 교체되어 새 색인에서 빠지는 변경이 없도록 한다
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public TrigramIndexItemRepository(ItemRepository target) {
+        this(target, new TrigramIndex());
+    }
+
+    public TrigramIndexItemRepository(ItemRepository target, TrigramIndex index) {
+        this.target = target;
+        this.index = index;
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = target.save(item);
+        putIndex(savedItem.getId(), savedItem.getItemName());
+        return savedItem;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+        putIndex(itemId, updateParam.getItemName());
+    }
+
+    @Override
+    public List<Item> saveAll(Collection<Item> items) {
+        List<Item> savedItems = target.saveAll(items);
+        for (Item savedItem : savedItems) {
+            putIndex(savedItem.getId(), savedItem.getItemName());
+        }
+        return savedItems;
+    }
+
+    @Override
+    public void updateAll(Map<Long, ItemUpdateDto> updateParams) {
+        target.updateAll(updateParams);
+        updateParams.forEach((itemId, updateParam) -> putIndex(itemId, updateParam.getItemName()));
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return target.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllByIds(Collection<Long> ids) {
+        return target.findAllByIds(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        TrigramIndex index = this.index;
+        if (!StringUtils.hasText(itemName) || !index.supports(itemName)) {
+            return target.findAll(cond);
+        }
+        return fetchCandidates(itemName, cond.getMaxPrice(), index.candidates(itemName), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        TrigramIndex index = this.index;
+        if (!StringUtils.hasText(itemName) || !index.supports(itemName)) {
+            return target.findSlice(cond);
+        }
+
+        int pageSize = cond.resolvePageSize();
+        SortedSet<Long> candidates = index.candidates(itemName);
+        if (cond.getAfterId() != null) {
+            candidates = candidates.tailSet(cond.getAfterId() + 1);
+        }
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        return ItemSlice.of(fetchCandidates(itemName, cond.getMaxPrice(), candidates, pageSize + 1), pageSize);
+    }
+
+    private List<Item> fetchCandidates(String itemName, Integer maxPrice, SortedSet<Long> candidates, int limit) {
+        List<Item> result = new ArrayList<>(Math.min(candidates.size(), limit));
+        Iterator<Long> it = candidates.iterator();
+        while (it.hasNext() && result.size() < limit) {
+            //남은 건수만큼만 묶어서 조회, 거짓 양성으로 모자라면 다음 묶음을 조회한다
+            int chunkSize = Math.min(IN_CHUNK_SIZE, limit - result.size());
+            List<Long> chunk = new ArrayList<>(chunkSize);
+            while (it.hasNext() && chunk.size() < chunkSize) {
+                chunk.add(it.next());
+            }
+            //롤백 등으로 색인에만 남은 id 는 조회 결과가 없으므로 자연스럽게 걸러진다
+            for (Item item : target.findAllByIds(chunk)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (item.getItemName() != null && item.getItemName().contains(itemName)
+                        && (maxPrice == null || (item.getPrice() != null && item.getPrice() <= maxPrice))) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void putIndex(Long id, String itemName) {
+        swapLock.readLock().lock();
+        try {
+            index.put(id, itemName);
+            TrigramIndex rebuilding = this.rebuilding;
+            if (rebuilding != null) {
+                rebuilding.put(id, itemName);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 저장소의 전체 데이터를 새 색인에 적재한 뒤 교체, 적재하는 동안에도 기존 색인으로 검색한다
+     */
+    public synchronized void reindex() {
+        TrigramIndex rebuilt = new TrigramIndex();
+        setRebuilding(rebuilt);
+        boolean swapped = false;
+        try {
+            List<Item> items = target.findAll(new ItemSearchCond());
+            for (Item item : items) {
+                //적재 중 save/update 로 먼저 들어온 값이 더 최신이다
+                rebuilt.putIfAbsent(item.getId(), item.getItemName());
+            }
+            swapLock.writeLock().lock();
+            try {
+                index = rebuilt;
+                rebuilding = null;
+                swapped = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            if (!swapped) {
+                setRebuilding(null);
+            }
+        }
+        log.info("trigram index rebuilt, items={}", rebuilt.size());
+    }
+
+    private void setRebuilding(TrigramIndex rebuilt) {
+        swapLock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+}
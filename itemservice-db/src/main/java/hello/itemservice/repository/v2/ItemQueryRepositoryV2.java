@@ -1,11 +1,17 @@
 package hello.itemservice.repository.v2;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.domain.QItem;
+import hello.itemservice.repository.ItemListRow;
+import hello.itemservice.repository.ItemRowSlice;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
@@ -41,4 +47,66 @@ public class ItemQueryRepositoryV2 {
 
         return result;
     }
+
+    /**
+     * 목록 화면용 DTO 프로젝션, findSlice 와 같은 키셋 페이징이고 엔티티를 영속성 컨텍스트에 올리지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public ItemRowSlice findListRows(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+        int pageSize = cond.resolvePageSize();
+
+        QItem item = QItem.item;
+        BooleanBuilder builder = new BooleanBuilder();
+        if (cond.getAfterId() != null) {
+            builder.and(item.id.gt(cond.getAfterId()));
+        }
+        if (StringUtils.hasText(itemName)) {
+            builder.and(item.itemName.like("%" + itemName + "%"));
+        }
+        if (maxPrice != null) {
+            builder.and(item.price.loe(maxPrice));
+        }
+
+        List<ItemListRow> result = query.select(Projections.constructor(ItemListRow.class,
+                        item.id, item.itemName, item.price, item.quantity))
+                .from(item)
+                .where(builder)
+                .orderBy(item.id.asc())
+                .limit(pageSize + 1)
+                .setHint(QueryHints.READ_ONLY, true)
+                .setHint(QueryHints.FLUSH_MODE, "MANUAL")
+                .fetch();
+
+        return ItemRowSlice.of(result, pageSize);
+    }
+
+    public ItemSlice findSlice(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+        int pageSize = cond.resolvePageSize();
+
+        QItem item = QItem.item;
+        BooleanBuilder builder = new BooleanBuilder();
+        if (cond.getAfterId() != null) {
+            builder.and(item.id.gt(cond.getAfterId()));
+        }
+        if (StringUtils.hasText(itemName)) {
+            builder.and(item.itemName.like("%" + itemName + "%"));
+        }
+        if (maxPrice != null) {
+            builder.and(item.price.loe(maxPrice));
+        }
+
+        //다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        List<Item> result = query.select(item)
+                .from(item)
+                .where(builder)
+                .orderBy(item.id.asc())
+                .limit(pageSize + 1)
+                .fetch();
+
+        return ItemSlice.of(result, pageSize);
+    }
 }
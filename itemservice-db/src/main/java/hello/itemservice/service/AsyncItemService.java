@@ -0,0 +1,52 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * ItemService 호출을 DB 전용 스레드 풀에서 실행한다. 요청 스레드(톰캣)는 DB 응답을 기다리지 않는다.
+ * 풀 크기는 커넥션 풀 크기에 맞춘다. 커넥션보다 스레드가 많으면 커넥션 대기만 늘어난다.
+ * 대기열까지 가득 차면 실패한 future 를 돌려준다 (RejectedExecutionException).
+ */
+public class AsyncItemService {
+
+    private final ItemService itemService;
+    private final Executor executor;
+
+    public AsyncItemService(ItemService itemService, Executor executor) {
+        this.itemService = itemService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Item> save(Item item) {
+        return supply(() -> itemService.save(item));
+    }
+
+    public CompletableFuture<Optional<Item>> findById(Long id) {
+        return supply(() -> itemService.findById(id));
+    }
+
+    public CompletableFuture<List<Item>> findItems(ItemSearchCond cond) {
+        return supply(() -> itemService.findItems(cond));
+    }
+
+    public CompletableFuture<ItemSlice> findItemSlice(ItemSearchCond cond) {
+        return supply(() -> itemService.findItemSlice(cond));
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
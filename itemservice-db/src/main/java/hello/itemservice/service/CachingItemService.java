@@ -0,0 +1,176 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.service.cache.SimpleCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ItemService 캐시 데코레이터
+ * findById 는 id 로, 검색 결과는 정규화한 ItemSearchCond 로 캐시하고
+ * save/update 시에는 변경된 상품과 관련 있는 엔트리만 제거한다.
+ * Item 은 가변 엔티티이므로 캐시에는 복사본을 넣고, 조회할 때도 복사본을 돌려준다.
+ */
+@RequiredArgsConstructor
+public class CachingItemService implements ItemService {
+
+    private final ItemService target;
+    private final SimpleCache<Long, Item> itemCache;
+    private final SimpleCache<ItemSearchCond, List<Item>> searchCache;
+    private final SimpleCache<ItemSearchCond, ItemSlice> sliceCache;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    //변경 세대, 조회 시작 후 변경이 끼어들었으면 조회 결과를 캐시에 남기지 않는다
+    private final AtomicLongArray itemGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong searchGeneration = new AtomicLong();
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = target.save(item);
+        searchGeneration.incrementAndGet();
+        //새 상품이 조건에 맞는 검색 결과만 무효화
+        searchCache.invalidateIf((cond, items) -> matches(cond, savedItem));
+        sliceCache.invalidateIf((cond, slice) -> matchesSlice(cond, savedItem));
+        return savedItem;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+
+        Item updated = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        updated.setId(itemId);
+
+        //저장소 반영 -> 세대 증가 -> 무효화 순서를 지켜야 진행 중인 조회가 이전 값을 다시 넣지 못한다
+        itemGenerations.incrementAndGet(stripe(itemId));
+        searchGeneration.incrementAndGet();
+
+        itemCache.invalidate(itemId);
+        //기존 결과에 포함되어 있었거나, 변경 후 값이 조건에 맞게 된 검색 결과만 무효화
+        searchCache.invalidateIf((cond, items) -> contains(items, itemId) || matches(cond, updated));
+        sliceCache.invalidateIf((cond, slice) -> contains(slice.getContent(), itemId) || matchesSlice(cond, updated));
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        Item cached = itemCache.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        int stripe = stripe(id);
+        long generation = itemGenerations.get(stripe);
+        Optional<Item> findItem = target.findById(id);
+        findItem.ifPresent(item -> {
+            itemCache.put(id, copyOf(item));
+            //put 직전에 update 가 끝났을 수 있으므로 넣은 뒤 다시 확인해서 되돌린다
+            if (itemGenerations.get(stripe) != generation) {
+                itemCache.invalidate(id);
+            }
+        });
+        //캐시에는 복사본을 넣었으므로 조회한 인스턴스는 그대로 돌려줘도 된다
+        return findItem;
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        ItemSearchCond key = new ItemSearchCond(normalizeName(cond.getItemName()), cond.getMaxPrice());
+        List<Item> cached = searchCache.get(key);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long generation = searchGeneration.get();
+        List<Item> items = copyOf(target.findItems(cond));
+        searchCache.put(key, items);
+        if (searchGeneration.get() != generation) {
+            searchCache.invalidate(key);
+        }
+        return copyOf(items);
+    }
+
+    @Override
+    public ItemSlice findItemSlice(ItemSearchCond cond) {
+        ItemSearchCond key = new ItemSearchCond(normalizeName(cond.getItemName()), cond.getMaxPrice(),
+                cond.resolvePageSize(), cond.getAfterId());
+        ItemSlice cached = sliceCache.get(key);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long generation = searchGeneration.get();
+        ItemSlice slice = copyOf(target.findItemSlice(cond));
+        sliceCache.put(key, slice);
+        if (searchGeneration.get() != generation) {
+            sliceCache.invalidate(key);
+        }
+        return copyOf(slice);
+    }
+
+    public SimpleCache<Long, Item> getItemCache() {
+        return itemCache;
+    }
+
+    public SimpleCache<ItemSearchCond, List<Item>> getSearchCache() {
+        return searchCache;
+    }
+
+    public SimpleCache<ItemSearchCond, ItemSlice> getSliceCache() {
+        return sliceCache;
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        return copy;
+    }
+
+    private static List<Item> copyOf(List<Item> items) {
+        List<Item> copies = new ArrayList<>(items.size());
+        for (Item item : items) {
+            copies.add(copyOf(item));
+        }
+        return List.copyOf(copies);
+    }
+
+    private static ItemSlice copyOf(ItemSlice slice) {
+        return new ItemSlice(copyOf(slice.getContent()), slice.isHasNext());
+    }
+
+    private static String normalizeName(String itemName) {
+        return StringUtils.hasText(itemName) ? itemName : null;
+    }
+
+    private static boolean matches(ItemSearchCond cond, Item item) {
+        if (cond.getItemName() != null
+                && (item.getItemName() == null || !item.getItemName().contains(cond.getItemName()))) {
+            return false;
+        }
+        return cond.getMaxPrice() == null || (item.getPrice() != null && item.getPrice() <= cond.getMaxPrice());
+    }
+
+    private static boolean matchesSlice(ItemSearchCond cond, Item item) {
+        //afterId 이전 id 는 해당 페이지에 나타나지 않는다
+        return matches(cond, item) && (cond.getAfterId() == null || item.getId() > cond.getAfterId());
+    }
+
+    private static boolean contains(List<Item> items, Long itemId) {
+        for (Item item : items) {
+            if (itemId.equals(item.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,9 @@
 package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRowSlice;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 
 import java.util.List;
@@ -16,4 +18,13 @@ public interface ItemService {
     Optional<Item> findById(Long id);
 
     List<Item> findItems(ItemSearchCond itemSearch);
+
+    ItemSlice findItemSlice(ItemSearchCond itemSearch);
+
+    /**
+     * 목록 화면용 한 페이지, DTO 프로젝션이 있는 구현은 엔티티를 조회하지 않도록 재정의한다
+     */
+    default ItemRowSlice findItemRowSlice(ItemSearchCond itemSearch) {
+        return ItemRowSlice.from(findItemSlice(itemSearch));
+    }
 }
@@ -1,7 +1,9 @@
 package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRowSlice;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.repository.v2.ItemQueryRepositoryV2;
 import hello.itemservice.repository.v2.ItemRepositoryV2;
@@ -41,4 +43,16 @@ public class ItemServiceV2 implements ItemService {
     public List<Item> findItems(ItemSearchCond cond) {
         return itemQueryRepositoryV2.findAll(cond);
     }
+
+    @Override
+    public ItemSlice findItemSlice(ItemSearchCond cond) {
+        return itemQueryRepositoryV2.findSlice(cond);
+    }
+
+    //목록 화면용 읽기 전용 조회, 엔티티 대신 DTO 로 가져온다
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRowSlice findItemRowSlice(ItemSearchCond cond) {
+        return itemQueryRepositoryV2.findListRows(cond);
+    }
 }
@@ -0,0 +1,57 @@
+package hello.itemservice.service.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheStats {
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    void recordEviction() {
+        evictionCount.incrementAndGet();
+    }
+
+    void recordInvalidation(int count) {
+        invalidationCount.addAndGet(count);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    //크기 초과 또는 TTL 만료로 제거된 수
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    //save/update 로 무효화된 수
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hit=" + getHitCount() + ", miss=" + getMissCount() +
+                ", eviction=" + getEvictionCount() + ", invalidation=" + getInvalidationCount() + "}";
+    }
+}
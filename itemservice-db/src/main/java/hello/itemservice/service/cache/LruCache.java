@@ -0,0 +1,122 @@
+package hello.itemservice.service.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * 크기 제한 LRU 캐시, ttl 을 주면 쓰기 후 ttl 이 지난 엔트리는 조회 시 만료된다.
+ */
+public class LruCache<K, V> implements SimpleCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final CacheStats stats = new CacheStats();
+
+    //accessOrder = true: 조회할 때마다 가장 최근 위치로 이동
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public LruCache(int maxSize) {
+        this(maxSize, Duration.ZERO);
+    }
+
+    public LruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    LruCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    stats.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            stats.recordEviction();
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, ticker.getAsLong()));
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            stats.recordInvalidation(1);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateIf(BiPredicate<K, V> condition) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (condition.test(entry.getKey(), entry.getValue().value)) {
+                it.remove();
+                removed++;
+            }
+        }
+        stats.recordInvalidation(removed);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        stats.recordInvalidation(entries.size());
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats;
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && ticker.getAsLong() - entry.writtenAt >= ttlNanos;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+
+        Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package hello.itemservice.service.cache;
+
+import java.util.function.BiPredicate;
+
+/**
+ * CachingItemService 가 사용하는 로컬 캐시, 제거 정책은 구현체가 결정한다.
+ */
+public interface SimpleCache<K, V> {
+
+    V get(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    //조건에 맞는 엔트리만 제거
+    void invalidateIf(BiPredicate<K, V> condition);
+
+    void invalidateAll();
+
+    int size();
+
+    CacheStats stats();
+}
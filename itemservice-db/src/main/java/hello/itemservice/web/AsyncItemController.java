@@ -0,0 +1,77 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.AsyncItemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * ItemController 의 비동기 버전, DB 작업은 itemDbExecutor 에서 실행되고 톰캣 스레드는 바로 반환된다.
+ * 화면은 ItemController 와 같은 템플릿을 사용한다.
+ */
+@Controller
+@RequestMapping("/async/items")
+@RequiredArgsConstructor
+public class AsyncItemController {
+
+    private final AsyncItemService asyncItemService;
+
+    @GetMapping
+    public DeferredResult<ModelAndView> items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch) {
+        return toDeferredResult(asyncItemService.findItemSlice(itemSearch), slice ->
+                new ModelAndView("items")
+                        .addObject("itemSearch", itemSearch)
+                        .addObject("items", slice.getContent())
+                        .addObject("slice", slice));
+    }
+
+    @GetMapping("/{itemId}")
+    public DeferredResult<ModelAndView> item(@PathVariable long itemId) {
+        return toDeferredResult(asyncItemService.findById(itemId), item ->
+                new ModelAndView("item").addObject("item", item.get()));
+    }
+
+    @PostMapping("/add")
+    public DeferredResult<String> addItem(@ModelAttribute Item item) {
+        return toDeferredResult(asyncItemService.save(item),
+                savedItem -> "redirect:/items/" + savedItem.getId() + "?status=true");
+    }
+
+    //실행 스레드 풀 대기열이 가득 찼다
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public String busy() {
+        return "busy";
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ResponseBody
+    public String notFound() {
+        return "not found";
+    }
+
+    private static <T, R> DeferredResult<R> toDeferredResult(CompletableFuture<T> future, Function<T, R> mapper) {
+        DeferredResult<R> result = new DeferredResult<>();
+        future.thenApply(mapper).whenComplete((value, ex) -> {
+            if (ex != null) {
+                result.setErrorResult(ex instanceof CompletionException ? ex.getCause() : ex);
+            } else {
+                result.setResult(value);
+            }
+        });
+        return result;
+    }
+}
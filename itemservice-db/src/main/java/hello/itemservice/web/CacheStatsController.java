@@ -0,0 +1,28 @@
+package hello.itemservice.web;
+
+import hello.itemservice.service.CachingItemService;
+import hello.itemservice.service.cache.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Profile("cache")
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CachingItemService cachingItemService;
+
+    @GetMapping("/cache/stats")
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("item", cachingItemService.getItemCache().stats());
+        stats.put("search", cachingItemService.getSearchCache().stats());
+        stats.put("slice", cachingItemService.getSliceCache().stats());
+        return stats;
+    }
+}
@@ -2,6 +2,7 @@ package hello.itemservice.web;
 
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemRowSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.service.ItemService;
 import lombok.RequiredArgsConstructor;
@@ -10,8 +11,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -21,8 +20,10 @@ public class ItemController {
 
     @GetMapping
     public String items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch, Model model) {
-        List<Item> items = itemService.findItems(itemSearch);
-        model.addAttribute("items", items);
+        //전체 결과 대신 한 페이지만 조회 (키셋 페이징), 목록에 필요한 컬럼만 DTO 로 받는다
+        ItemRowSlice slice = itemService.findItemRowSlice(itemSearch);
+        model.addAttribute("items", slice.getContent());
+        model.addAttribute("slice", slice);
         return "items";
     }
 
@@ -1,13 +1,30 @@
 package hello.itemservice;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class ItemServiceApplicationTests {
 
+	@Autowired
+	ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void 기본_비동기_실행기_유지() {
+		//itemDbExecutor 는 DB 작업 전용, MVC 비동기와 @Async 는 부트 기본 실행기를 쓴다
+		Object applicationTaskExecutor = context.getBean("applicationTaskExecutor");
+		assertThat(applicationTaskExecutor).isInstanceOf(ThreadPoolTaskExecutor.class);
+		assertThat(applicationTaskExecutor).isNotSameAs(context.getBean("itemDbExecutor"));
+		assertThat(((ThreadPoolTaskExecutor) applicationTaskExecutor).getThreadNamePrefix()).isEqualTo("task-");
+	}
+
 }
@@ -2,6 +2,7 @@ package hello.itemservice.domain;
 
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.repository.memory.MemoryItemRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -15,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -75,6 +77,46 @@ class ItemRepositoryTest {
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
 
+    @Test
+    void saveAllAndUpdateAll() {
+        //given
+        List<Item> items = List.of(
+                new Item("itemA", 10000, 10),
+                new Item("itemB", 20000, 20),
+                new Item("itemC", 30000, 30));
+
+        //when
+        List<Item> savedItems = itemRepository.saveAll(items);
+        Long firstId = savedItems.get(0).getId();
+        Long lastId = savedItems.get(2).getId();
+        itemRepository.updateAll(Map.of(
+                firstId, new ItemUpdateDto("itemA2", 11000, 11),
+                lastId, new ItemUpdateDto("itemC2", 33000, 33)));
+
+        //then
+        assertThat(savedItems).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Item first = itemRepository.findById(firstId).get();
+        assertThat(first.getItemName()).isEqualTo("itemA2");
+        assertThat(first.getPrice()).isEqualTo(11000);
+        assertThat(itemRepository.findById(savedItems.get(1).getId()).get().getItemName()).isEqualTo("itemB");
+        assertThat(itemRepository.findById(lastId).get().getQuantity()).isEqualTo(33);
+    }
+
+    @Test
+    void findAllByIds() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.save(new Item("itemC", 30000, 30));
+
+        //when
+        List<Item> result = itemRepository.findAllByIds(List.of(item2.getId(), item1.getId(), -1L));
+
+        //then
+        assertThat(result).extracting(Item::getId).containsExactly(item1.getId(), item2.getId());
+        assertThat(itemRepository.findAllByIds(List.of())).isEmpty();
+    }
+
     @Test
     void findItems() {
         //given
@@ -102,6 +144,30 @@ class ItemRepositoryTest {
         test("itemA", 10000, item1);
     }
 
+    @Test
+    void findSlice() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+        Item item4 = itemRepository.save(new Item("itemA-3", 40000, 40));
+
+        //첫 페이지
+        ItemSlice first = itemRepository.findSlice(new ItemSearchCond("itemA", null, 2, null));
+        assertThat(first.getContent()).containsExactly(item1, item2);
+        assertThat(first.isHasNext()).isTrue();
+
+        //다음 페이지
+        ItemSlice second = itemRepository.findSlice(new ItemSearchCond("itemA", null, 2, first.getNextAfterId()));
+        assertThat(second.getContent()).containsExactly(item4);
+        assertThat(second.isHasNext()).isFalse();
+
+        //가격 조건
+        ItemSlice priced = itemRepository.findSlice(new ItemSearchCond(null, 30000, 10, item1.getId()));
+        assertThat(priced.getContent()).containsExactly(item2, item3);
+        assertThat(priced.isHasNext()).isFalse();
+    }
+
     void test(String itemName, Integer maxPrice, Item... items) {
         List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
         assertThat(result).containsExactly(items);
@@ -0,0 +1,81 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 조건 조합별 실행 계획 검증 (H2 메모리 DB, schema.sql)
+ * 인덱스를 탈 수 있는 조건이 전체 스캔(tableScan)으로 바뀌면 실패한다.
+ */
+@Slf4j
+class ItemQueryPlanTest {
+
+    static SingleConnectionDataSource dataSource;
+    static JdbcTemplate template;
+
+    @BeforeAll
+    static void beforeAll() throws SQLException {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:plan;DB_CLOSE_DELAY=-1", "sa", "", true);
+        ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("schema.sql"));
+
+        template = new JdbcTemplate(dataSource);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new Object[]{"item" + (i % 1000), i, 1});
+        }
+        template.batchUpdate("insert into item(item_name, price, quantity) values (?,?,?)", rows);
+        template.execute("analyze");
+    }
+
+    @AfterAll
+    static void afterAll() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void findAllPlans() {
+        //조건 없음: 전체 조회이므로 스캔이 정상
+        //itemName 만: like '%x%' 는 B-Tree 인덱스를 쓸 수 없다 (TrigramIndexItemRepository 로 보완)
+        assertThat(explain(ItemSql.positionalFindAll(ItemSql.HAS_PRICE), 100))
+                .contains("IDX_ITEM_PRICE").doesNotContain("tableScan");
+        assertThat(explain(ItemSql.positionalFindAll(ItemSql.HAS_NAME | ItemSql.HAS_PRICE), "item1", 100))
+                .contains("IDX_ITEM_PRICE").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findSlicePlans() {
+        //키셋 페이징은 모든 조합에서 인덱스로 시작 위치를 찾는다
+        assertThat(explain(ItemSql.positionalFindSlice(0), 5000L, 21))
+                .doesNotContain("tableScan");
+        assertThat(explain(ItemSql.positionalFindSlice(ItemSql.HAS_NAME), 5000L, "item1", 21))
+                .doesNotContain("tableScan");
+        assertThat(explain(ItemSql.positionalFindSlice(ItemSql.HAS_PRICE), 5000L, 100, 21))
+                .doesNotContain("tableScan");
+        assertThat(explain(ItemSql.positionalFindSlice(ItemSql.HAS_NAME | ItemSql.HAS_PRICE), 5000L, "item1", 100, 21))
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByIdPlan() {
+        assertThat(explain("select id, item_name, price, quantity from item where id = ?", 1L))
+                .contains("PRIMARY_KEY").doesNotContain("tableScan");
+    }
+
+    private String explain(String sql, Object... args) {
+        String plan = template.queryForObject("explain " + sql, String.class, args);
+        log.info("plan={}", plan);
+        return plan;
+    }
+}
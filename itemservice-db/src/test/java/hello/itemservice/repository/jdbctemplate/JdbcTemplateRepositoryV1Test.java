@@ -0,0 +1,64 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 배치 저장/수정은 가격, 수량이 없는 상품도 null 로 저장한다
+ */
+class JdbcTemplateRepositoryV1Test {
+
+    SingleConnectionDataSource dataSource;
+    JdbcTemplateRepositoryV1 itemRepository;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:jdbcV1;DB_CLOSE_DELAY=-1", "sa", "", true);
+        ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("schema.sql"));
+        itemRepository = new JdbcTemplateRepositoryV1(dataSource);
+    }
+
+    @AfterEach
+    void afterEach() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void saveAllAndUpdateAllWithNullPrice() {
+        //given
+        List<Item> items = itemRepository.saveAll(List.of(
+                new Item("itemA", null, 10),
+                new Item("itemB", 20000, null)));
+        Long firstId = items.get(0).getId();
+        Long secondId = items.get(1).getId();
+
+        //when
+        itemRepository.updateAll(Map.of(secondId, new ItemUpdateDto("itemB2", null, 20)));
+
+        //then
+        Item first = itemRepository.findById(firstId).get();
+        assertThat(first.getPrice()).isNull();
+        assertThat(first.getQuantity()).isEqualTo(10);
+        Item second = itemRepository.findById(secondId).get();
+        assertThat(second.getItemName()).isEqualTo("itemB2");
+        assertThat(second.getPrice()).isNull();
+        assertThat(second.getQuantity()).isEqualTo(20);
+    }
+
+    @Test
+    void findAllByIdsEmpty() {
+        assertThat(itemRepository.findAllByIds(List.of())).isEmpty();
+    }
+}
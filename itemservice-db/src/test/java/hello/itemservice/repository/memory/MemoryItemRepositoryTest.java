@@ -0,0 +1,141 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSlice;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryItemRepositoryTest {
+
+    MemoryItemRepository repository = new MemoryItemRepository();
+
+    @AfterEach
+    void afterEach() {
+        repository.clearStore();
+    }
+
+    @Test
+    void updateMovesPriceIndex() {
+        Item item = repository.save(new Item("itemA", 10000, 10));
+
+        repository.update(item.getId(), new ItemUpdateDto("itemA", 30000, 10));
+
+        assertThat(repository.findAll(new ItemSearchCond(null, 10000))).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond(null, 30000)))
+                .extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        int threadCount = 8;
+        int perThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    repository.save(new Item("item", i, 1));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Item> all = repository.findAll(new ItemSearchCond());
+        assertThat(all).hasSize(threadCount * perThread);
+        assertThat(all).extracting(Item::getId).doesNotHaveDuplicates().isSorted();
+        assertThat(repository.findAll(new ItemSearchCond(null, 99))).hasSize(threadCount * 100);
+    }
+
+    @Test
+    void concurrentUpdate() throws Exception {
+        int itemCount = 10;
+        int threadCount = 8;
+        int perThread = 2000;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            ids.add(repository.save(new Item("item", 0, 1)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        //조회 중에 같은 상품이 옛 가격과 새 가격으로 두 번 보이면 안 된다
+        Future<?> reader = executor.submit(() -> {
+            while (running.get()) {
+                List<Item> found = repository.findAll(new ItemSearchCond(null, 1000));
+                assertThat(found).extracting(Item::getId).doesNotHaveDuplicates();
+            }
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            writers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    Long id = ids.get(random.nextInt(itemCount));
+                    repository.update(id, new ItemUpdateDto("item", random.nextInt(1000), 1));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        reader.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //상품마다 현재 가격의 인덱스 항목 하나만 남는다
+        assertThat(repository.priceIndexSize()).isEqualTo(itemCount);
+        for (Long id : ids) {
+            Item item = repository.findById(id).orElseThrow();
+            assertThat(repository.findAll(new ItemSearchCond(null, item.getPrice())))
+                    .extracting(Item::getId).contains(id);
+        }
+    }
+
+    @Test
+    void maxPricePagingOverLargeRange() {
+        for (int i = 0; i < 3000; i++) {
+            repository.save(new Item("item", i % 100, 1));
+        }
+
+        ItemSlice first = repository.findSlice(new ItemSearchCond(null, 49, 10, null));
+        ItemSlice second = repository.findSlice(new ItemSearchCond(null, 49, 10, first.getNextAfterId()));
+
+        assertThat(first.getContent()).hasSize(10).allMatch(item -> item.getPrice() <= 49);
+        assertThat(first.getContent()).extracting(Item::getId).isSorted();
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).hasSize(10);
+        assertThat(second.getContent().get(0).getId()).isGreaterThan(first.getNextAfterId());
+    }
+
+    @Test
+    void maxPriceFindAllOverLargeRange() {
+        //given
+        for (int i = 0; i < 3000; i++) {
+            repository.save(new Item("item" + (i % 2), i % 100, 1));
+        }
+        repository.save(new Item("item0", null, 1));
+
+        //when
+        List<Item> result = repository.findAll(new ItemSearchCond(null, 49));
+        List<Item> named = repository.findAll(new ItemSearchCond("item1", 49));
+
+        //then
+        //SMALL_PRICE_RANGE 를 넘는 범위도 가격 인덱스로 조회하고 id 순으로 돌려준다
+        assertThat(result).hasSize(1500).allMatch(item -> item.getPrice() <= 49);
+        assertThat(result).extracting(Item::getId).isSorted();
+        assertThat(named).hasSize(750).allMatch(item -> item.getItemName().equals("item1"));
+    }
+}
@@ -0,0 +1,151 @@
+package hello.itemservice.repository.ngram;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexItemRepositoryTest {
+
+    AtomicInteger findByIdCount = new AtomicInteger();
+    AtomicInteger findAllByIdsCount = new AtomicInteger();
+    MemoryItemRepository memoryItemRepository = new MemoryItemRepository() {
+        @Override
+        public Optional<Item> findById(Long id) {
+            findByIdCount.incrementAndGet();
+            return super.findById(id);
+        }
+
+        @Override
+        public List<Item> findAllByIds(Collection<Long> ids) {
+            findAllByIdsCount.incrementAndGet();
+            return super.findAllByIds(ids);
+        }
+    };
+    TrigramIndexItemRepository itemRepository = new TrigramIndexItemRepository(memoryItemRepository);
+
+    @AfterEach
+    void afterEach() {
+        memoryItemRepository.clearStore();
+    }
+
+    @Test
+    void findItems() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        //색인 사용
+        test("itemA", null, item1, item2);
+        test("temA", null, item1, item2);
+        test("B-1", null, item3);
+        test("itemA", 10000, item1);
+        test("itemC", null);
+
+        //3글자 미만은 위임
+        test("A-", null, item1, item2);
+        test(null, null, item1, item2, item3);
+    }
+
+    @Test
+    void updateReindexesName() {
+        Item item = itemRepository.save(new Item("apple", 10000, 10));
+
+        itemRepository.update(item.getId(), new ItemUpdateDto("banana", 10000, 10));
+
+        assertThat(itemRepository.findAll(new ItemSearchCond("apple", null))).isEmpty();
+        assertThat(itemRepository.findAll(new ItemSearchCond("nana", null)))
+                .extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void reindex() {
+        Item item = memoryItemRepository.save(new Item("direct", 10000, 10));
+        assertThat(itemRepository.findAll(new ItemSearchCond("direct", null))).isEmpty();
+
+        itemRepository.reindex();
+
+        assertThat(itemRepository.findAll(new ItemSearchCond("direct", null)))
+                .extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void candidatesAreFetchedInChunks() {
+        //given
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < TrigramIndexItemRepository.IN_CHUNK_SIZE * 2 + 10; i++) {
+            items.add(new Item("itemA-" + i, 10000, 10));
+        }
+        itemRepository.saveAll(items);
+
+        //when
+        List<Item> result = itemRepository.findAll(new ItemSearchCond("itemA", null));
+
+        //then
+        assertThat(result).hasSize(items.size());
+        assertThat(findByIdCount.get()).isZero();
+        assertThat(findAllByIdsCount.get()).isEqualTo(3);
+
+        //페이지 조회는 pageSize + 1 건만 한 번에 조회
+        findAllByIdsCount.set(0);
+        assertThat(itemRepository.findSlice(new ItemSearchCond("itemA", null, 20, null)).getContent()).hasSize(20);
+        assertThat(findAllByIdsCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void maxPriceSkipsItemWithoutPrice() {
+        //given
+        itemRepository.save(new Item("itemA-1", null, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 10000, 10));
+
+        //when, then
+        test("itemA", 20000, item2);
+    }
+
+    @Test
+    void reindexKeepsUpdatesMadeWhileRebuilding() {
+        //given
+        Item item = memoryItemRepository.save(new Item("apple", 10000, 10));
+        AtomicReference<TrigramIndexItemRepository> writer = new AtomicReference<>();
+        TrigramIndexItemRepository repository = new TrigramIndexItemRepository(new MemoryItemRepository() {
+            @Override
+            public List<Item> findAll(ItemSearchCond cond) {
+                //스냅샷을 읽은 뒤 적재 전에 update 가 끼어든 상황
+                List<Item> snapshot = super.findAll(cond);
+                TrigramIndexItemRepository decorator = writer.getAndSet(null);
+                if (decorator != null) {
+                    decorator.update(item.getId(), new ItemUpdateDto("banana", 10000, 10));
+                }
+                return snapshot;
+            }
+        });
+        writer.set(repository);
+
+        //when
+        repository.reindex();
+
+        //then
+        assertThat(repository.findAll(new ItemSearchCond("apple", null))).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond("banana", null)))
+                .extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    void test(String itemName, Integer maxPrice, Item... items) {
+        List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
+        assertThat(result).extracting(Item::getId)
+                .containsExactly(Arrays.stream(items).map(Item::getId).toArray(Long[]::new));
+    }
+}
@@ -0,0 +1,69 @@
+package hello.itemservice.repository.v2;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemListRow;
+import hello.itemservice.repository.ItemRowSlice;
+import hello.itemservice.repository.ItemSearchCond;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class ItemQueryRepositoryV2Test {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    ItemQueryRepositoryV2 itemQueryRepository;
+
+    @Test
+    void findListRows() {
+        //given
+        Item itemA = new Item("itemA-1", 10000, 10);
+        Item itemB = new Item("itemB-1", 20000, 20);
+        em.persist(itemA);
+        em.persist(itemB);
+        em.flush();
+        em.clear();
+
+        //when
+        ItemRowSlice rows = itemQueryRepository.findListRows(new ItemSearchCond("itemA", 15000));
+
+        //then
+        assertThat(rows.getContent()).containsExactly(new ItemListRow(itemA.getId(), "itemA-1", 10000, 10));
+        assertThat(rows.isHasNext()).isFalse();
+        //DTO 조회는 영속성 컨텍스트에 엔티티를 남기지 않는다
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void findListRowsPaging() {
+        //given
+        Item itemA = new Item("paging-1", 10000, 10);
+        Item itemB = new Item("paging-2", 20000, 20);
+        Item itemC = new Item("paging-3", 30000, 30);
+        em.persist(itemA);
+        em.persist(itemB);
+        em.persist(itemC);
+        em.flush();
+        em.clear();
+
+        //when
+        ItemRowSlice first = itemQueryRepository.findListRows(new ItemSearchCond("paging", null, 2, null));
+        ItemRowSlice second = itemQueryRepository.findListRows(new ItemSearchCond("paging", null, 2, first.getNextAfterId()));
+
+        //then
+        assertThat(first.getContent()).extracting(ItemListRow::getId).containsExactly(itemA.getId(), itemB.getId());
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting(ItemListRow::getId).containsExactly(itemC.getId());
+        assertThat(second.isHasNext()).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncItemServiceTest {
+
+    MemoryItemRepository itemRepository = new MemoryItemRepository();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    AsyncItemService itemService = new AsyncItemService(new ItemServiceV1(itemRepository), executor);
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void saveAndFind() throws Exception {
+        Item savedItem = itemService.save(new Item("itemA", 10000, 10)).get(1, TimeUnit.SECONDS);
+
+        assertThat(itemService.findById(savedItem.getId()).get(1, TimeUnit.SECONDS)).contains(savedItem);
+        assertThat(itemService.findItems(new ItemSearchCond("itemA", null)).get(1, TimeUnit.SECONDS))
+                .containsExactly(savedItem);
+    }
+
+    @Test
+    void rejectedWhenQueueIsFull() {
+        //스레드 1개, 대기열 없음: 첫 작업이 실행 중이면 두 번째 작업은 거절된다
+        CountDownLatch latch = new CountDownLatch(1);
+        ThreadPoolExecutor busyExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        busyExecutor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AsyncItemService busyService = new AsyncItemService(new ItemServiceV1(itemRepository), busyExecutor);
+
+        assertThatThrownBy(() -> busyService.findById(1L).get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        latch.countDown();
+        busyExecutor.shutdown();
+    }
+}
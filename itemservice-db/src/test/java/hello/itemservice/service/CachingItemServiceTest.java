@@ -0,0 +1,152 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemListRow;
+import hello.itemservice.repository.ItemRowSlice;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.cache.LruCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingItemServiceTest {
+
+    MemoryItemRepository itemRepository = new MemoryItemRepository();
+    CachingItemService itemService = new CachingItemService(new ItemServiceV1(itemRepository),
+            new LruCache<>(2), new LruCache<>(10, Duration.ofMinutes(1)), new LruCache<>(10, Duration.ofMinutes(1)));
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void findByIdHitAndEviction() {
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        Item itemB = itemService.save(new Item("itemB", 20000, 20));
+        Item itemC = itemService.save(new Item("itemC", 30000, 30));
+
+        itemService.findById(itemA.getId());
+        itemService.findById(itemA.getId());
+        assertThat(itemService.getItemCache().stats().getHitCount()).isEqualTo(1);
+
+        //최대 2개, 가장 오래 사용하지 않은 itemA 가 제거된다
+        itemService.findById(itemB.getId());
+        itemService.findById(itemC.getId());
+        assertThat(itemService.getItemCache().size()).isEqualTo(2);
+        assertThat(itemService.getItemCache().stats().getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInvalidatesItemAndMatchingSearches() {
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        itemService.save(new Item("itemB", 20000, 20));
+
+        itemService.findById(itemA.getId());
+        itemService.findItems(new ItemSearchCond("itemA", null));
+        itemService.findItems(new ItemSearchCond("itemB", null));
+
+        itemService.update(itemA.getId(), new ItemUpdateDto("itemA", 15000, 10));
+
+        //itemA 를 포함한 검색만 제거되고 itemB 검색은 유지
+        assertThat(itemService.getSearchCache().size()).isEqualTo(1);
+        assertThat(itemService.findById(itemA.getId()).get().getPrice()).isEqualTo(15000);
+        assertThat(itemService.findItems(new ItemSearchCond("itemA", null)))
+                .extracting(Item::getPrice).containsExactly(15000);
+    }
+
+    @Test
+    void saveInvalidatesMatchingSearches() {
+        itemService.save(new Item("itemA", 10000, 10));
+        itemService.findItems(new ItemSearchCond("item", null));
+        itemService.findItems(new ItemSearchCond("", 5000));
+
+        itemService.save(new Item("itemB", 20000, 20));
+
+        //"" 는 null 과 같은 키로 정규화되어 캐시가 유지된다
+        assertThat(itemService.findItems(new ItemSearchCond(null, 5000))).isEmpty();
+        assertThat(itemService.getSearchCache().stats().getHitCount()).isEqualTo(1);
+        assertThat(itemService.findItems(new ItemSearchCond("item", null))).hasSize(2);
+    }
+
+    @Test
+    void findItemRowSliceUsesCachedSlice() {
+        //given
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        itemService.save(new Item("itemB", 20000, 20));
+        ItemSearchCond cond = new ItemSearchCond("item", null, 1, null);
+        itemService.findItemSlice(cond);
+
+        //when
+        ItemRowSlice rows = itemService.findItemRowSlice(cond);
+
+        //then
+        assertThat(itemService.getSliceCache().stats().getHitCount()).isEqualTo(1);
+        assertThat(rows.getContent()).containsExactly(new ItemListRow(itemA.getId(), "itemA", 10000, 10));
+        assertThat(rows.isHasNext()).isTrue();
+        assertThat(rows.getNextAfterId()).isEqualTo(itemA.getId());
+    }
+
+    @Test
+    void updateDuringFillDoesNotCacheStaleItem() throws Exception {
+        //given
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        //DB 에서 읽은 직후 멈춰서 그 사이에 update 가 끝나도록 한다
+        ItemService slowTarget = new ItemServiceV1(itemRepository) {
+            @Override
+            public Optional<Item> findById(Long id) {
+                Optional<Item> findItem = super.findById(id);
+                loaded.countDown();
+                try {
+                    resume.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return findItem;
+            }
+        };
+        CachingItemService service = new CachingItemService(slowTarget,
+                new LruCache<>(10), new LruCache<>(10), new LruCache<>(10));
+        Item itemA = service.save(new Item("itemA", 10000, 10));
+
+        //when
+        CompletableFuture<Optional<Item>> fill = CompletableFuture.supplyAsync(() -> service.findById(itemA.getId()));
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+        service.update(itemA.getId(), new ItemUpdateDto("itemA", 15000, 10));
+        resume.countDown();
+        fill.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(service.getItemCache().get(itemA.getId())).isNull();
+        assertThat(service.findById(itemA.getId()).get().getPrice()).isEqualTo(15000);
+    }
+
+    @Test
+    void mutatingReturnedItemDoesNotChangeCache() {
+        //given
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        itemService.findById(itemA.getId());
+        itemService.findItems(new ItemSearchCond("itemA", null));
+
+        //when
+        itemService.findById(itemA.getId()).get().setPrice(1);
+        List<Item> items = itemService.findItems(new ItemSearchCond("itemA", null));
+        items.get(0).setPrice(1);
+
+        //then
+        assertThat(itemService.findById(itemA.getId()).get().getPrice()).isEqualTo(10000);
+        assertThat(itemService.findItems(new ItemSearchCond("itemA", null)))
+                .extracting(Item::getPrice).containsExactly(10000);
+    }
+}
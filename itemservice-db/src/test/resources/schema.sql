@@ -1,9 +1,15 @@
 drop table if exists item CASCADE;
+drop sequence if exists item_seq;
+create sequence item_seq start with 1 increment by 50;
 create table item
 (
-    id        bigint generated by default as identity,
+    id        bigint default next value for item_seq,
     item_name varchar(10),
     price     integer,
     quantity  integer,
     primary key (id)
-);
\ No newline at end of file
+);
+
+-- maxPrice 조건은 범위 조회
+-- itemName 은 모두 like '%x%' 검색이라 B-Tree 인덱스를 쓸 수 없으므로 만들지 않는다 (쓰기 비용만 든다)
+create index idx_item_price on item (price);
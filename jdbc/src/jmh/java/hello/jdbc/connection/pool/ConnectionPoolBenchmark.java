@@ -0,0 +1,101 @@
+package hello.jdbc.connection.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 획득 + select 1 + 반납 처리량, 동시 호출 1~64
+ * DriverManager(매번 TCP 연결), SimpleConnectionPool, HikariCP 비교
+ * 풀 크기는 10 (HikariCP 기본값), 그 이상의 동시 호출은 풀에서 대기한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConnectionPoolBenchmark {
+
+    private static final int POOL_SIZE = 10;
+
+    @Param({"driverManager", "simple", "hikari"})
+    String source;
+
+    Server server;
+    String url;
+    SimpleConnectionPool simplePool;
+    HikariDataSource hikari;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bench;DB_CLOSE_DELAY=-1";
+
+        simplePool = new SimpleConnectionPool(url, "sa", "");
+        simplePool.setMaximumPoolSize(POOL_SIZE);
+        simplePool.setMinimumIdle(POOL_SIZE);
+
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(url);
+        hikari.setUsername("sa");
+        hikari.setPassword("");
+        hikari.setMaximumPoolSize(POOL_SIZE);
+        hikari.setMinimumIdle(POOL_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simplePool.close();
+        hikari.close();
+        server.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int threads1() throws SQLException {
+        return selectOne();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int threads4() throws SQLException {
+        return selectOne();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int threads16() throws SQLException {
+        return selectOne();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int threads64() throws SQLException {
+        return selectOne();
+    }
+
+    private int selectOne() throws SQLException {
+        try (Connection con = getConnection();
+             Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("select 1")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        switch (source) {
+            case "simple":
+                return simplePool.getConnection();
+            case "hikari":
+                return hikari.getConnection();
+            default:
+                return DriverManager.getConnection(url, "sa", "");
+        }
+    }
+}
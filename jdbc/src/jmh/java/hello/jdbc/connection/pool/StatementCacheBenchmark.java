@@ -0,0 +1,58 @@
+package hello.jdbc.connection.pool;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV1;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepositoryV1.findById 한 번의 지연 시간, statement 캐시 크기 0 (매번 prepare) 과 25 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatementCacheBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCacheBenchmark.class);
+
+    @Param({"0", "25"})
+    int statementCacheSize;
+
+    Server server;
+    SimpleConnectionPool pool;
+    MemberRepositoryV1 repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:statementBench;DB_CLOSE_DELAY=-1";
+
+        pool = new SimpleConnectionPool(url, "sa", "");
+        pool.setStatementCacheSize(statementCacheSize);
+        try (Connection con = pool.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute("create table if not exists member (member_id varchar(10), money integer not null default 0, primary key (member_id))");
+            stmt.execute("delete from member");
+        }
+        repository = new MemberRepositoryV1(pool);
+        repository.save(new Member("memberA", 10000));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        log.info("statement cache hitRate={}", pool.getMetrics().getStatementCacheHitRate());
+        pool.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Member findById() throws SQLException {
+        return repository.findById("memberA");
+    }
+}
@@ -0,0 +1,91 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.pool.SimpleConnectionPool;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.CachedSQLExceptionTranslator;
+import hello.jdbc.service.MemberCreator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 충돌이 잦은 회원 저장 처리량, 첫 시도는 항상 이미 있는 아이디
+ * - springTranslator: save -> DuplicateKeyException(SQLErrorCodeSQLExceptionTranslator) -> 새 아이디로 재시도
+ * - cachedTranslator: 같은 흐름, CachedSQLExceptionTranslator
+ * - saveIfAbsent: MemberCreator, 예외 없이 결과로 판단
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DuplicateKeyBenchmark {
+
+    private static final int BASE_COUNT = 1000;
+
+    @Param({"springTranslator", "cachedTranslator", "saveIfAbsent"})
+    String strategy;
+
+    SimpleConnectionPool dataSource;
+    JdbcTemplate template;
+    MemberRepositoryV4_2 repository;
+    MemberCreator memberCreator;
+    List<Member> baseMembers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SimpleConnectionPool("jdbc:h2:mem:duplicateBench;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setMaximumPoolSize(16);
+        template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists member (member_id varchar(10), money integer not null default 0, primary key (member_id))");
+
+        if (strategy.equals("springTranslator")) {
+            repository = new MemberRepositoryV4_2(dataSource, new SQLErrorCodeSQLExceptionTranslator(dataSource));
+        } else {
+            repository = new MemberRepositoryV4_2(dataSource, new CachedSQLExceptionTranslator(dataSource));
+        }
+        memberCreator = new MemberCreator(repository, 100);
+
+        baseMembers = new ArrayList<>();
+        for (int i = 0; i < BASE_COUNT; i++) {
+            baseMembers.add(new Member("b" + i, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * 재시도로 만든 아이디가 쌓이지 않게 반복마다 기본 아이디만 남긴다
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        template.update("delete from member");
+        repository.saveAll(baseMembers);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String create() {
+        String memberId = "b" + ThreadLocalRandom.current().nextInt(BASE_COUNT);
+        if (strategy.equals("saveIfAbsent")) {
+            return memberCreator.create(memberId, 0);
+        }
+
+        String candidate = memberId;
+        while (true) {
+            try {
+                repository.save(new Member(candidate, 0));
+                return candidate;
+            } catch (DuplicateKeyException e) {
+                candidate = memberId + ThreadLocalRandom.current().nextInt(10000);
+            }
+        }
+    }
+}
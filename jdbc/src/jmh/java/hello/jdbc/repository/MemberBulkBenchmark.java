@@ -0,0 +1,122 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.pool.SimpleConnectionPool;
+import hello.jdbc.domain.Member;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 1만 명 저장 / 조회 / 변경 / 전체 순회 지연 시간
+ * 단건 메서드 반복 (1만 번 왕복) 과 saveAll, findAllByIds, updateAll, forEach 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberBulkBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+
+    @Param({"v4_2", "v5"})
+    String implementation;
+
+    Server server;
+    SimpleConnectionPool dataSource;
+    JdbcTemplate template;
+    MemberRepository repository;
+
+    List<Member> members;
+    List<String> memberIds;
+    Map<String, Integer> moneyByMemberId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:memberBench;DB_CLOSE_DELAY=-1";
+        dataSource = new SimpleConnectionPool(url, "sa", "");
+        template = new JdbcTemplate(dataSource);
+        template.execute("create table if not exists member (member_id varchar(10), money integer not null default 0, primary key (member_id))");
+        repository = implementation.equals("v5") ? new MemberRepositoryV5(dataSource) : new MemberRepositoryV4_2(dataSource);
+
+        members = new ArrayList<>();
+        memberIds = new ArrayList<>();
+        moneyByMemberId = new HashMap<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            String memberId = "m" + i;
+            members.add(new Member(memberId, i));
+            memberIds.add(memberId);
+            moneyByMemberId.put(memberId, i + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        server.stop();
+    }
+
+    /**
+     * 저장 벤치마크는 빈 테이블에서, 나머지는 채운 테이블에서 시작
+     */
+    @Setup(Level.Invocation)
+    public void reset() {
+        template.update("delete from member");
+    }
+
+    @Benchmark
+    public void saveOneByOne() {
+        for (Member member : members) {
+            repository.save(member);
+        }
+    }
+
+    @Benchmark
+    public void saveAll() {
+        repository.saveAll(members);
+    }
+
+    @Benchmark
+    public int findOneByOne() {
+        repository.saveAll(members);
+        int total = 0;
+        for (String memberId : memberIds) {
+            total += repository.findById(memberId).getMoney();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int findAllByIds() {
+        repository.saveAll(members);
+        return repository.findAllByIds(memberIds).size();
+    }
+
+    @Benchmark
+    public void updateOneByOne() {
+        repository.saveAll(members);
+        for (Map.Entry<String, Integer> entry : moneyByMemberId.entrySet()) {
+            repository.update(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void updateAll() {
+        repository.saveAll(members);
+        repository.updateAll(moneyByMemberId);
+    }
+
+    @Benchmark
+    public long forEach() {
+        repository.saveAll(members);
+        long[] total = {0};
+        repository.forEach(member -> total[0] += member.getMoney());
+        return total[0];
+    }
+}
@@ -0,0 +1,44 @@
+package hello.jdbc.repository.ex;
+
+import org.h2.api.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키 중복 SQLException 하나를 DataAccessException 으로 바꾸는 시간만 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SQLExceptionTranslatorBenchmark {
+
+    private static final String SQL = "insert into member(member_id, money) values (?, ?)";
+
+    SQLExceptionTranslator springTranslator;
+    SQLExceptionTranslator cachedTranslator;
+    SQLException duplicateKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:translatorBench;DB_CLOSE_DELAY=-1", "sa", "");
+        springTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        cachedTranslator = new CachedSQLExceptionTranslator(dataSource);
+        duplicateKey = new SQLException("Unique index or primary key violation", "23505", ErrorCode.DUPLICATE_KEY_1);
+    }
+
+    @Benchmark
+    public DataAccessException spring() {
+        return springTranslator.translate("save", SQL, duplicateKey);
+    }
+
+    @Benchmark
+    public DataAccessException cached() {
+        return cachedTranslator.translate("save", SQL, duplicateKey);
+    }
+}
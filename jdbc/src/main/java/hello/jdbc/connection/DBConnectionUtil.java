@@ -1,19 +1,25 @@
 package hello.jdbc.connection;
 
+import hello.jdbc.connection.pool.SimpleConnectionPool;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 import static hello.jdbc.connection.ConnectionConst.*;
 
 @Slf4j
 public class DBConnectionUtil {
+
+    //처음 사용할 때 만든다, 매 호출마다 TCP 연결과 인증을 하지 않도록 풀에서 빌려준다
+    private static class Holder {
+        private static final SimpleConnectionPool POOL = new SimpleConnectionPool(URL, USERNAME, PASSWORD);
+    }
+
     public static Connection getConnection() {
         try {
-            Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            log.info("get connection={}, class={}", connection, connection.getClass());
+            Connection connection = Holder.POOL.getConnection();
+            log.debug("get connection={}, class={}", connection, connection.getClass());
             return connection;
         } catch (SQLException e) {
             throw new IllegalStateException(e);
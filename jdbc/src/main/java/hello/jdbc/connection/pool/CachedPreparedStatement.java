@@ -0,0 +1,77 @@
+package hello.jdbc.connection.pool;
+
+import hello.jdbc.connection.DelegatingPreparedStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * StatementCache 에서 빌려준 논리 statement, close() 하면 물리 statement 를 캐시에 돌려준다
+ */
+final class CachedPreparedStatement extends DelegatingPreparedStatement {
+
+    private final PooledConnection connection;
+    private final StatementCache cache;
+    private final StatementCache.Slot slot;
+    private boolean closed;
+
+    CachedPreparedStatement(PooledConnection connection, StatementCache cache, StatementCache.Slot slot) {
+        this.connection = connection;
+        this.cache = cache;
+        this.slot = slot;
+    }
+
+    @Override
+    protected PreparedStatement delegate() throws SQLException {
+        //커넥션을 반납하면 물리 statement 는 다음 사용자 것이다
+        if (closed || connection.isClosed()) {
+            throw new SQLException("statement is closed");
+        }
+        return slot.statement;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!connection.isClosed()) {
+            cache.giveBack(slot);
+        }
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean escapeProcessing) throws SQLException {
+        super.setEscapeProcessing(escapeProcessing);
+        slot.dirty = true;
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        super.setCursorName(name);
+        slot.dirty = true;
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        super.setPoolable(poolable);
+        slot.dirty = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed || connection.isClosed();
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPreparedStatement[" + slot.statement + "]";
+    }
+}
@@ -0,0 +1,55 @@
+package hello.jdbc.connection.pool;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * SimpleConnectionPool 지표 스냅샷
+ */
+@Getter
+@ToString
+public class PoolMetrics {
+
+    private final int total;
+    private final int idle;
+    private final int active;
+    private final long borrowCount;
+    private final long createCount;
+    private final long validationFailureCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    //커넥션을 얻기까지 기다린 시간 (획득 실패 포함)
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    PoolMetrics(int total, int idle, int active, long borrowCount, long createCount, long validationFailureCount,
+                long timeoutCount, long leakCount, long totalWaitNanos, long maxWaitNanos,
+                long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.total = total;
+        this.idle = idle;
+        this.active = active;
+        this.borrowCount = borrowCount;
+        this.createCount = createCount;
+        this.validationFailureCount = validationFailureCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public double getAverageWaitMillis() {
+        long attempts = borrowCount + timeoutCount;
+        return attempts == 0 ? 0 : totalWaitNanos / 1_000_000.0 / attempts;
+    }
+
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+}
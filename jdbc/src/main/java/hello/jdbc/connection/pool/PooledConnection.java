@@ -0,0 +1,67 @@
+package hello.jdbc.connection.pool;
+
+import hello.jdbc.connection.DelegatingConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 풀에서 빌려준 논리 커넥션, close() 하면 물리 커넥션을 풀에 돌려준다
+ * 한 번 빌려줄 때마다 새로 만들어서 닫은 뒤의 사용이 다음 사용자에게 영향을 주지 않게 한다
+ */
+final class PooledConnection extends DelegatingConnection {
+
+    private final SimpleConnectionPool pool;
+    private final SimpleConnectionPool.Entry entry;
+    private volatile boolean closed;
+
+    PooledConnection(SimpleConnectionPool pool, SimpleConnectionPool.Entry entry) {
+        this.pool = pool;
+        this.entry = entry;
+    }
+
+    SimpleConnectionPool.Entry entry() {
+        return entry;
+    }
+
+    @Override
+    protected Connection delegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("connection is closed");
+        }
+        return entry.physical;
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        StatementCache cache = entry.statementCache;
+        if (cache == null) {
+            return super.prepareStatement(sql);
+        }
+        StatementCache.Slot slot = cache.borrow(sql);
+        if (slot == null) {
+            return super.prepareStatement(sql);
+        }
+        return new CachedPreparedStatement(this, cache, slot);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pool.release(this);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return "PooledConnection[" + entry.physical + "]";
+    }
+}
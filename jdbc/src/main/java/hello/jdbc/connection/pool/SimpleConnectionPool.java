@@ -0,0 +1,402 @@
+package hello.jdbc.connection.pool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * DriverManager 기반 경량 커넥션 풀
+ * - 유휴 커넥션은 lock-free 덱(ConcurrentLinkedDeque)에 LIFO 로 보관, 최근에 쓴 커넥션부터 다시 쓴다
+ * - 동시에 빌려줄 수 있는 수는 Semaphore(maximumPoolSize) 로 제한, 없으면 connectionTimeout 만큼 기다린다
+ * - 빌려줄 때 validationThreshold 보다 오래 쉬었으면 isValid 로 검사
+ * - leakDetectionThreshold 보다 오래 반납하지 않으면 빌려간 위치 스택과 함께 경고 로그
+ * 설정은 첫 getConnection 전에 한다
+ */
+@Slf4j
+public class SimpleConnectionPool implements DataSource, AutoCloseable {
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private int minimumIdle = 0;
+    private int maximumPoolSize = 10;
+    private long connectionTimeoutMillis = 30_000;
+    private long validationThresholdMillis = 500;
+    private long leakDetectionThresholdMillis = 0;
+    private long idleTimeoutMillis = 600_000;
+    private long housekeepingPeriodMillis = 1_000;
+    private int statementCacheSize = 25;
+
+    private final ConcurrentLinkedDeque<Entry> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private volatile Semaphore permits;
+    private volatile ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    public SimpleConnectionPool(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        checkNotStarted();
+        this.minimumIdle = minimumIdle;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        checkNotStarted();
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize must be positive");
+        }
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public void setConnectionTimeoutMillis(long connectionTimeoutMillis) {
+        checkNotStarted();
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+    }
+
+    /**
+     * 이 시간보다 오래 쉰 커넥션만 빌려줄 때 검사한다, 0 이면 매번 검사
+     */
+    public void setValidationThresholdMillis(long validationThresholdMillis) {
+        checkNotStarted();
+        this.validationThresholdMillis = validationThresholdMillis;
+    }
+
+    /**
+     * 0 이면 누수 감지를 하지 않는다
+     */
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        checkNotStarted();
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        checkNotStarted();
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setHousekeepingPeriodMillis(long housekeepingPeriodMillis) {
+        checkNotStarted();
+        this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+    }
+
+    /**
+     * 물리 커넥션 하나가 캐시할 PreparedStatement 수, 0 이면 캐시하지 않는다
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        checkNotStarted();
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("pool is closed");
+        }
+        Semaphore permits = start();
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                recordWait(start);
+                throw new SQLTimeoutException("connection is not available, request timed out after "
+                        + connectionTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection", e);
+        }
+
+        try {
+            Entry entry = borrowEntry();
+            recordWait(start);
+            borrowCount.increment();
+
+            entry.borrowedAt = System.nanoTime();
+            entry.leakReported = false;
+            if (leakDetectionThresholdMillis > 0) {
+                entry.borrowedFrom = new Exception("connection borrowed here");
+            }
+            PooledConnection connection = new PooledConnection(this, entry);
+            active.add(connection);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("pool is bound to " + this.username);
+    }
+
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(total.get(), idle.size(), active.size(),
+                borrowCount.sum(), createCount.sum(), validationFailureCount.sum(),
+                timeoutCount.sum(), leakCount.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    /**
+     * 유휴 커넥션을 닫는다, 사용 중인 커넥션은 반납될 때 닫힌다
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledExecutorService housekeeper = this.housekeeper;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeEntry(entry);
+        }
+    }
+
+    void release(PooledConnection connection) {
+        Entry entry = connection.entry();
+        active.remove(connection);
+        entry.borrowedFrom = null;
+        if (entry.statementCache != null) {
+            entry.statementCache.reclaim();
+        }
+
+        boolean broken = false;
+        try {
+            //트랜잭션을 끝내지 않고 반납했으면 다음 사용자에게 넘어가지 않게 되돌린다
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (entry.physical.isReadOnly()) {
+                entry.physical.setReadOnly(false);
+            }
+        } catch (SQLException e) {
+            log.warn("discard broken connection={}", entry.physical, e);
+            broken = true;
+        }
+
+        //동시에 빈 풀을 보고 새로 만든 경우 최대 크기를 잠깐 넘을 수 있다, 반납할 때 줄인다
+        if (broken || closed || total.get() > maximumPoolSize) {
+            closeEntry(entry);
+        } else {
+            entry.lastUsed = System.nanoTime();
+            idle.offerFirst(entry);
+        }
+        permits.release();
+    }
+
+    private Entry borrowEntry() throws SQLException {
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isAlive(entry)) {
+                return entry;
+            }
+            validationFailureCount.increment();
+            closeEntry(entry);
+        }
+        return createEntry();
+    }
+
+    private boolean isAlive(Entry entry) {
+        long idleNanos = System.nanoTime() - entry.lastUsed;
+        if (idleNanos < TimeUnit.MILLISECONDS.toNanos(validationThresholdMillis)) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Entry createEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        total.incrementAndGet();
+        createCount.increment();
+        log.debug("new connection={}", physical);
+        Entry entry = new Entry(physical);
+        if (statementCacheSize > 0) {
+            entry.statementCache = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+        return entry;
+    }
+
+    private void closeEntry(Entry entry) {
+        total.decrementAndGet();
+        if (entry.statementCache != null) {
+            entry.statementCache.close();
+        }
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            log.debug("close connection failed", e);
+        }
+    }
+
+    private void recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private Semaphore start() throws SQLException {
+        Semaphore current = permits;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (permits == null) {
+                for (int i = 0; i < minimumIdle; i++) {
+                    Entry entry = createEntry();
+                    entry.lastUsed = System.nanoTime();
+                    idle.offerLast(entry);
+                }
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "simple-pool-housekeeper");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.scheduleWithFixedDelay(this::housekeep,
+                        housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+                housekeeper = executor;
+                permits = new Semaphore(maximumPoolSize, true);
+            }
+            return permits;
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+            if (leakDetectionThresholdMillis > 0) {
+                long threshold = TimeUnit.MILLISECONDS.toNanos(leakDetectionThresholdMillis);
+                for (PooledConnection connection : active) {
+                    Entry entry = connection.entry();
+                    if (!entry.leakReported && now - entry.borrowedAt > threshold) {
+                        entry.leakReported = true;
+                        leakCount.increment();
+                        log.warn("connection leak detected, borrowed {}ms ago, connection={}",
+                                TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAt), entry.physical, entry.borrowedFrom);
+                    }
+                }
+            }
+
+            long idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            //오래된 것부터 (덱의 끝) 최소 유휴 수까지만 닫는다
+            for (Iterator<Entry> it = idle.descendingIterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (total.get() <= minimumIdle) {
+                    break;
+                }
+                if (now - entry.lastUsed > idleTimeout && idle.removeLastOccurrence(entry)) {
+                    closeEntry(entry);
+                }
+            }
+            while (!closed && total.get() < minimumIdle) {
+                Entry entry = createEntry();
+                entry.lastUsed = System.nanoTime();
+                idle.offerLast(entry);
+            }
+        } catch (Exception e) {
+            log.warn("housekeeping failed", e);
+        }
+    }
+
+    private void checkNotStarted() {
+        if (permits != null) {
+            throw new IllegalStateException("pool is already started");
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("not a wrapper for " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * 물리 커넥션과 풀 관리 정보
+     */
+    static final class Entry {
+        final Connection physical;
+        StatementCache statementCache;
+        volatile long lastUsed;
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowedFrom;
+
+        Entry(Connection physical) {
+            this.physical = physical;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package hello.jdbc.connection.pool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 물리 커넥션 하나의 PreparedStatement LRU 캐시, SQL 문자열이 키
+ * 같은 SQL 을 동시에 두 번 준비하면 두 번째는 캐시하지 않은 statement 를 준다
+ * 반납할 때 fetchSize 등 statement 설정을 생성 시점 값으로 되돌리고, 되돌릴 수 없게 바뀐 statement 는 버린다
+ */
+@Slf4j
+final class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    //접근 순서 LinkedHashMap, 가장 오래 안 쓴 것이 맨 앞
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * 캐시한 statement 를 빌려준다, 캐시할 수 없으면 null
+     */
+    synchronized Slot borrow(String sql) throws SQLException {
+        Slot slot = slots.get(sql);
+        if (slot != null) {
+            if (slot.inUse) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            slot.inUse = true;
+            return slot;
+        }
+
+        misses.increment();
+        slot = new Slot(sql, physical.prepareStatement(sql));
+        try {
+            slot.recordDefaults();
+        } catch (SQLException e) {
+            closeQuietly(slot.statement);
+            throw e;
+        }
+        slot.inUse = true;
+        slots.put(sql, slot);
+        if (slots.size() > maxSize) {
+            evictEldest();
+        }
+        return slot;
+    }
+
+    /**
+     * 논리 statement 를 닫으면 호출, 다음 사용자를 위해 파라미터와 설정을 되돌린다
+     */
+    synchronized void giveBack(Slot slot) {
+        if (slot.evicted) {
+            closeQuietly(slot.statement);
+            return;
+        }
+        try {
+            if (slot.dirty || !slot.restoreDefaults()) {
+                log.debug("discard modified statement sql={}", slot.sql);
+                discard(slot);
+                return;
+            }
+            slot.statement.clearParameters();
+            slot.statement.clearBatch();
+            slot.statement.clearWarnings();
+            slot.inUse = false;
+        } catch (SQLException e) {
+            log.debug("discard cached statement sql={}", slot.sql, e);
+            discard(slot);
+        }
+    }
+
+    private void discard(Slot slot) {
+        slots.remove(slot.sql);
+        closeQuietly(slot.statement);
+    }
+
+    /**
+     * 커넥션 반납 시 호출, 닫지 않고 남은 statement 를 회수한다
+     * 회수한 논리 statement 는 커넥션이 닫혀서 더 쓸 수 없다
+     */
+    synchronized void reclaim() {
+        List<Slot> inUse = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            if (slot.inUse) {
+                inUse.add(slot);
+            }
+        }
+        for (Slot slot : inUse) {
+            giveBack(slot);
+        }
+    }
+
+    synchronized void close() {
+        for (Slot slot : slots.values()) {
+            closeQuietly(slot.statement);
+        }
+        slots.clear();
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    private void evictEldest() {
+        Iterator<Slot> it = slots.values().iterator();
+        Slot eldest = it.next();
+        it.remove();
+        evictions.increment();
+        //사용 중이면 반납할 때 닫는다
+        if (eldest.inUse) {
+            eldest.evicted = true;
+        } else {
+            closeQuietly(eldest.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("close statement failed", e);
+        }
+    }
+
+    static final class Slot {
+        final String sql;
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+        //값을 읽을 수 없는 설정(escapeProcessing, cursorName 등)을 바꾸면 true, 반납할 때 버린다
+        boolean dirty;
+
+        //생성 시점 설정
+        private int fetchSize;
+        private int fetchDirection;
+        private int maxRows;
+        private int maxFieldSize;
+        private int queryTimeout;
+        private boolean closeOnCompletion;
+
+        Slot(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        void recordDefaults() throws SQLException {
+            fetchSize = statement.getFetchSize();
+            fetchDirection = statement.getFetchDirection();
+            maxRows = statement.getMaxRows();
+            maxFieldSize = statement.getMaxFieldSize();
+            queryTimeout = statement.getQueryTimeout();
+            closeOnCompletion = statement.isCloseOnCompletion();
+        }
+
+        /**
+         * 바뀐 설정만 되돌린다, closeOnCompletion 은 끌 수 없으므로 켜졌으면 false
+         */
+        boolean restoreDefaults() throws SQLException {
+            if (statement.isCloseOnCompletion() != closeOnCompletion) {
+                return false;
+            }
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getFetchDirection() != fetchDirection) {
+                statement.setFetchDirection(fetchDirection);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getMaxFieldSize() != maxFieldSize) {
+                statement.setMaxFieldSize(maxFieldSize);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package hello.jdbc.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * IN (?, ?, ...) 조회용 유틸
+ * 중복을 빼고 정렬해서 나누므로 조각별 결과를 순서대로 이으면 전체가 정렬되어 있다
+ * 한 번에 최대 MAX_IN_SIZE 개로 나누고, 개수를 2의 거듭제곱으로 맞춰서 (마지막 값 반복)
+ * SQL 모양이 몇 가지로만 나오게 한다, statement 캐시와 DB 의 실행 계획 캐시가 재사용된다
+ */
+final class InListSupport {
+
+    static final int MAX_IN_SIZE = 512;
+
+    private InListSupport() {
+    }
+
+    static List<String[]> partition(Collection<String> values) {
+        List<String> distinct = new ArrayList<>(new TreeSet<>(values));
+        List<String[]> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IN_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + MAX_IN_SIZE, distinct.size()));
+            String[] padded = chunk.toArray(new String[paddedSize(chunk.size())]);
+            Arrays.fill(padded, chunk.size(), padded.length, chunk.get(chunk.size() - 1));
+            chunks.add(padded);
+        }
+        return chunks;
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static int paddedSize(int size) {
+        int padded = Integer.highestOneBit(size);
+        return padded == size ? size : padded << 1;
+    }
+}
@@ -2,6 +2,11 @@ package hello.jdbc.repository;
 
 import hello.jdbc.domain.Member;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 public interface MemberRepository {
     Member save(Member member);
 
@@ -9,5 +14,39 @@ public interface MemberRepository {
 
     void update(String memberId, int money);
 
+    /**
+     * money = money + delta, 결과가 음수가 되면 바꾸지 않는다
+     * 읽고 쓰는 사이에 다른 이체가 끼어들지 않도록 DB 에서 한 번에 계산한다
+     * @return 바꿨으면 true, 잔액이 부족하거나 회원이 없으면 false
+     */
+    boolean addMoney(String memberId, int delta);
+
     void delete(String memberId);
+
+    /**
+     * 같은 member_id 가 없을 때만 저장, 키 중복을 예외 없이 false 로 알려준다
+     * 동시에 같은 키를 저장해서 키 중복 예외가 나도 false
+     */
+    boolean saveIfAbsent(Member member);
+
+    /**
+     * JDBC batch 로 한 번에 저장
+     */
+    void saveAll(Collection<Member> members);
+
+    /**
+     * IN 조회, 없는 회원은 결과에 없다, 순서는 member_id 순
+     */
+    List<Member> findAllByIds(Collection<String> memberIds);
+
+    /**
+     * memberId -> money, JDBC batch 로 한 번에 변경
+     * member_id 순서로 갱신해서 동시에 실행해도 잠금 순서가 같다
+     */
+    void updateAll(Map<String, Integer> moneyByMemberId);
+
+    /**
+     * 전체 회원을 member_id 순으로 한 건씩 넘긴다, 결과를 메모리에 모으지 않는다
+     */
+    void forEach(Consumer<Member> action);
 }
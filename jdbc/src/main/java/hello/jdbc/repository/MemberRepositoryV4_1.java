@@ -8,7 +8,13 @@ import org.springframework.jdbc.support.JdbcUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * 예외 누수 문제 해결
@@ -20,12 +26,23 @@ import java.util.NoSuchElementException;
 public class MemberRepositoryV4_1 implements MemberRepository{
 
 
+    //saveAll, updateAll 에서 executeBatch 한 번에 보내는 건수
+    private static final int BATCH_SIZE = 1000;
+
     private final DataSource dataSource;
+    private int fetchSize = 500;
 
     public MemberRepositoryV4_1(DataSource dataSource) {
         this.dataSource = dataSource;
     }
 
+    /**
+     * forEach 에서 한 번에 가져오는 행 수
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     @Override
     public Member save(Member member){
         String sql = "insert into member(member_id, money) values (?, ?)";
@@ -47,6 +64,40 @@ public class MemberRepositoryV4_1 implements MemberRepository{
         }
     }
 
+    @Override
+    public boolean saveIfAbsent(Member member){
+        //H2 문법: from 없는 select 에 바인딩 파라미터만 있으면 타입을 알 수 없어 cast 가 필요하다
+        //다른 DB 는 각자 문법을 쓴다 (MySQL insert ignore, PostgreSQL on conflict do nothing, Oracle merge 등)
+        String sql = "insert into member(member_id, money) select cast(? as varchar(10)), cast(? as integer)"
+                + " where not exists (select 1 from member where member_id = ?)";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, member.getMemberId());
+            pstmt.setInt(2, member.getMoney());
+            pstmt.setString(3, member.getMemberId());
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            //not exists 확인과 insert 사이에 다른 트랜잭션이 먼저 넣은 경우
+            //벤더 에러 코드 대신 표준 SQLState 클래스 23(무결성 제약 위반)으로 판단, 이 insert 에서는 키 중복뿐이다
+            if (isIntegrityConstraintViolation(e)) {
+                return false;
+            }
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    private static boolean isIntegrityConstraintViolation(SQLException e) {
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("23");
+    }
+
     @Override
     public Member findById(String memberId){
         String sql = "select * from member where member_id = ?";
@@ -98,6 +149,27 @@ public class MemberRepositoryV4_1 implements MemberRepository{
         }
     }
 
+    @Override
+    public boolean addMoney(String memberId, int delta){
+        String sql = "update member set money = money + ? where member_id = ? and money + ? >= 0";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, memberId);
+            pstmt.setInt(3, delta);
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
     @Override
     public void delete(String memberId){
         String sql = "delete from member where member_id=?";
@@ -117,6 +189,131 @@ public class MemberRepositoryV4_1 implements MemberRepository{
         }
     }
 
+    @Override
+    public void saveAll(Collection<Member> members){
+        String sql = "insert into member(member_id, money) values (?, ?)";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            int count = 0;
+            for (Member member : members) {
+                pstmt.setString(1, member.getMemberId());
+                pstmt.setInt(2, member.getMoney());
+                pstmt.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (count % BATCH_SIZE != 0) {
+                pstmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    @Override
+    public List<Member> findAllByIds(Collection<String> memberIds){
+        List<Member> members = new ArrayList<>();
+        if (memberIds.isEmpty()) {
+            return members;
+        }
+
+        String sql = null;
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            for (String[] chunk : InListSupport.partition(memberIds)) {
+                sql = "select * from member where member_id in (" + InListSupport.placeholders(chunk.length) + ") order by member_id";
+                pstmt = con.prepareStatement(sql);
+                for (int i = 0; i < chunk.length; i++) {
+                    pstmt.setString(i + 1, chunk[i]);
+                }
+                rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    members.add(mapMember(rs));
+                }
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(pstmt);
+                rs = null;
+                pstmt = null;
+            }
+            return members;
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public void updateAll(Map<String, Integer> moneyByMemberId){
+        String sql = "update member set money=? where member_id=?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            int count = 0;
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(moneyByMemberId).entrySet()) {
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (count % BATCH_SIZE != 0) {
+                pstmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Member> action){
+        String sql = "select * from member order by member_id";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                action.accept(mapMember(rs));
+            }
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    private Member mapMember(ResultSet rs) throws SQLException {
+        Member member = new Member();
+        member.setMemberId(rs.getString("member_id"));
+        member.setMoney(rs.getInt("money"));
+        return member;
+    }
+
     private void close(Connection con, Statement stmt, ResultSet rs) {
         JdbcUtils.closeResultSet(rs);
         JdbcUtils.closeStatement(stmt);
@@ -1,29 +1,53 @@
 package hello.jdbc.repository;
 
 import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.CachedSQLExceptionTranslator;
 import hello.jdbc.repository.ex.MyDbException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
-import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLExceptionTranslator;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * SQLExceptionTranslator
+ * 에러 코드 표를 한 번만 만드는 CachedSQLExceptionTranslator 사용
  */
 @Slf4j
 public class MemberRepositoryV4_2 implements MemberRepository{
 
+    //saveAll, updateAll 에서 executeBatch 한 번에 보내는 건수
+    private static final int BATCH_SIZE = 1000;
+
     private final DataSource dataSource;
     private final SQLExceptionTranslator exTranslator;
+    private int fetchSize = 500;
 
     public MemberRepositoryV4_2(DataSource dataSource) {
+        this(dataSource, new CachedSQLExceptionTranslator(dataSource));
+    }
+
+    public MemberRepositoryV4_2(DataSource dataSource, SQLExceptionTranslator exTranslator) {
         this.dataSource = dataSource;
-        this.exTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.exTranslator = exTranslator;
+    }
+
+    /**
+     * forEach 에서 한 번에 가져오는 행 수
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     @Override
@@ -48,6 +72,33 @@ public class MemberRepositoryV4_2 implements MemberRepository{
         }
     }
 
+    @Override
+    public boolean saveIfAbsent(Member member){
+        //H2 전용 문법, 다른 DB 는 MemberRepositoryV4_1.saveIfAbsent 참고
+        String sql = "insert into member(member_id, money) select cast(? as varchar(10)), cast(? as integer)"
+                + " where not exists (select 1 from member where member_id = ?)";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, member.getMemberId());
+            pstmt.setInt(2, member.getMoney());
+            pstmt.setString(3, member.getMemberId());
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            DataAccessException ex = exTranslator.translate("saveIfAbsent", sql, e);
+            if (ex instanceof DuplicateKeyException) {
+                return false;
+            }
+            throw ex;
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
     @Override
     public Member findById(String memberId){
         String sql = "select * from member where member_id = ?";
@@ -99,6 +150,27 @@ public class MemberRepositoryV4_2 implements MemberRepository{
         }
     }
 
+    @Override
+    public boolean addMoney(String memberId, int delta){
+        String sql = "update member set money = money + ? where member_id = ? and money + ? >= 0";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, memberId);
+            pstmt.setInt(3, delta);
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw exTranslator.translate("addMoney", sql, e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
     @Override
     public void delete(String memberId){
         String sql = "delete from member where member_id=?";
@@ -118,6 +190,131 @@ public class MemberRepositoryV4_2 implements MemberRepository{
         }
     }
 
+    @Override
+    public void saveAll(Collection<Member> members){
+        String sql = "insert into member(member_id, money) values (?, ?)";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            int count = 0;
+            for (Member member : members) {
+                pstmt.setString(1, member.getMemberId());
+                pstmt.setInt(2, member.getMoney());
+                pstmt.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (count % BATCH_SIZE != 0) {
+                pstmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw exTranslator.translate("saveAll", sql, e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    @Override
+    public List<Member> findAllByIds(Collection<String> memberIds){
+        List<Member> members = new ArrayList<>();
+        if (memberIds.isEmpty()) {
+            return members;
+        }
+
+        String sql = null;
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            for (String[] chunk : InListSupport.partition(memberIds)) {
+                sql = "select * from member where member_id in (" + InListSupport.placeholders(chunk.length) + ") order by member_id";
+                pstmt = con.prepareStatement(sql);
+                for (int i = 0; i < chunk.length; i++) {
+                    pstmt.setString(i + 1, chunk[i]);
+                }
+                rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    members.add(mapMember(rs));
+                }
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(pstmt);
+                rs = null;
+                pstmt = null;
+            }
+            return members;
+        } catch (SQLException e) {
+            throw exTranslator.translate("findAllByIds", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public void updateAll(Map<String, Integer> moneyByMemberId){
+        String sql = "update member set money=? where member_id=?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            int count = 0;
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(moneyByMemberId).entrySet()) {
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            if (count % BATCH_SIZE != 0) {
+                pstmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw exTranslator.translate("updateAll", sql, e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Member> action){
+        String sql = "select * from member order by member_id";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                action.accept(mapMember(rs));
+            }
+        } catch (SQLException e) {
+            throw exTranslator.translate("forEach", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    private Member mapMember(ResultSet rs) throws SQLException {
+        Member member = new Member();
+        member.setMemberId(rs.getString("member_id"));
+        member.setMoney(rs.getInt("money"));
+        return member;
+    }
+
     private void close(Connection con, Statement stmt, ResultSet rs) {
         JdbcUtils.closeResultSet(rs);
         JdbcUtils.closeStatement(stmt);
@@ -2,7 +2,9 @@ package hello.jdbc.repository;
 
 import hello.jdbc.domain.Member;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
@@ -11,7 +13,13 @@ import org.springframework.jdbc.support.SQLExceptionTranslator;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * JDBC Template 적용 - 반복 문제 해결
@@ -19,12 +27,23 @@ import java.util.NoSuchElementException;
 @Slf4j
 public class MemberRepositoryV5 implements MemberRepository{
 
+    //saveAll, updateAll 에서 executeBatch 한 번에 보내는 건수
+    private static final int BATCH_SIZE = 1000;
+
     private final JdbcTemplate template;
+    private int fetchSize = 500;
 
     public MemberRepositoryV5(DataSource dataSource) {
         this.template = new JdbcTemplate(dataSource);
     }
 
+    /**
+     * forEach 에서 한 번에 가져오는 행 수
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     @Override
     public Member save(Member member){
         String sql = "insert into member(member_id, money) values (?, ?)";
@@ -49,6 +68,18 @@ public class MemberRepositoryV5 implements MemberRepository{
         }*/
     }
 
+    @Override
+    public boolean saveIfAbsent(Member member){
+        //H2 전용 문법, 다른 DB 는 MemberRepositoryV4_1.saveIfAbsent 참고
+        String sql = "insert into member(member_id, money) select cast(? as varchar(10)), cast(? as integer)"
+                + " where not exists (select 1 from member where member_id = ?)";
+        try {
+            return template.update(sql, member.getMemberId(), member.getMoney(), member.getMemberId()) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
     @Override
     public Member findById(String memberId){
         String sql = "select * from member where member_id = ?";
@@ -70,9 +101,54 @@ public class MemberRepositoryV5 implements MemberRepository{
         template.update(sql, money, memberId);
     }
 
+    @Override
+    public boolean addMoney(String memberId, int delta){
+        String sql = "update member set money = money + ? where member_id = ? and money + ? >= 0";
+        return template.update(sql, delta, memberId, delta) == 1;
+    }
+
     @Override
     public void delete(String memberId){
         String sql = "delete from member where member_id=?";
         template.update(sql, memberId);
     }
+
+    @Override
+    public void saveAll(Collection<Member> members){
+        String sql = "insert into member(member_id, money) values (?, ?)";
+        template.batchUpdate(sql, members, BATCH_SIZE, (ps, member) -> {
+            ps.setString(1, member.getMemberId());
+            ps.setInt(2, member.getMoney());
+        });
+    }
+
+    @Override
+    public List<Member> findAllByIds(Collection<String> memberIds){
+        List<Member> members = new ArrayList<>();
+        for (String[] chunk : InListSupport.partition(memberIds)) {
+            String sql = "select * from member where member_id in (" + InListSupport.placeholders(chunk.length) + ") order by member_id";
+            members.addAll(template.query(sql, memberRowMapper(), (Object[]) chunk));
+        }
+        return members;
+    }
+
+    @Override
+    public void updateAll(Map<String, Integer> moneyByMemberId){
+        String sql = "update member set money=? where member_id=?";
+        template.batchUpdate(sql, new TreeMap<>(moneyByMemberId).entrySet(), BATCH_SIZE, (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setString(2, entry.getKey());
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<Member> action){
+        String sql = "select * from member order by member_id";
+        RowMapper<Member> rowMapper = memberRowMapper();
+        template.query(con -> {
+            PreparedStatement pstmt = con.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            return pstmt;
+        }, (RowCallbackHandler) rs -> action.accept(rowMapper.mapRow(rs, 0)));
+    }
 }
@@ -0,0 +1,150 @@
+package hello.jdbc.repository.ex;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.CannotSerializeTransactionException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLErrorCodes;
+import org.springframework.jdbc.support.SQLErrorCodesFactory;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 벤더 에러 코드 -> 예외 생성 함수 표를 한 번만 만드는 SQLExceptionTranslator
+ * 표는 정렬된 int 배열이라 에러마다 박싱이나 맵 조회 없이 이진 탐색 한 번으로 예외를 만든다
+ * 표에 없는 코드는 같은 SQLErrorCodes 로 만든 SQLErrorCodeSQLExceptionTranslator 에 넘긴다 (SQL State 기반 변환 등)
+ * DataSource 로 만들면 스프링 변환기처럼 첫 변환 때 에러 코드를 읽는다. 생성 시점에 DB 에 연결하지 않는다
+ */
+public class CachedSQLExceptionTranslator implements SQLExceptionTranslator {
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        DataAccessException create(String task, String sql, SQLException ex);
+    }
+
+    private final DataSource dataSource;
+    private final SQLExceptionTranslator fallback;
+    private volatile CodeTable codeTable;
+
+    public CachedSQLExceptionTranslator(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.fallback = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    public CachedSQLExceptionTranslator(SQLErrorCodes sqlErrorCodes) {
+        this.dataSource = null;
+        this.fallback = new SQLErrorCodeSQLExceptionTranslator(sqlErrorCodes);
+        this.codeTable = new CodeTable(sqlErrorCodes);
+    }
+
+    @Override
+    public DataAccessException translate(String task, String sql, SQLException ex) {
+        CodeTable table = codeTable();
+        if (table == null) {
+            return fallback.translate(task, sql, ex);
+        }
+        SQLException target = ex;
+        if (ex instanceof BatchUpdateException && ex.getNextException() != null) {
+            target = ex.getNextException();
+        }
+        //드라이버가 감싼 예외는 에러 코드가 0 이다, 스프링 변환기처럼 원인에서 코드를 찾는다
+        SQLException current = target;
+        while (current.getErrorCode() == 0 && current.getCause() instanceof SQLException) {
+            current = (SQLException) current.getCause();
+        }
+        DataAccessException translated = table.create(task, sql, target, current.getErrorCode());
+        return translated != null ? translated : fallback.translate(task, sql, ex);
+    }
+
+    private CodeTable codeTable() {
+        CodeTable table = codeTable;
+        if (table == null && dataSource != null) {
+            //DB 에 연결하지 못하면 null, 표를 남기지 않고 다음 변환에서 다시 읽는다
+            SQLErrorCodes sqlErrorCodes = SQLErrorCodesFactory.getInstance().resolveErrorCodes(dataSource);
+            if (sqlErrorCodes != null) {
+                //동시에 만들어도 내용이 같으므로 먼저 넣은 쪽을 덮어써도 된다
+                table = new CodeTable(sqlErrorCodes);
+                codeTable = table;
+            }
+        }
+        return table;
+    }
+
+    private static final class CodeTable {
+
+        private final int[] errorCodes;
+        private final ExceptionFactory[] factories;
+
+        CodeTable(SQLErrorCodes sqlErrorCodes) {
+            //SQLErrorCodeSQLExceptionTranslator 와 같은 우선순위, 앞에 등록한 것이 이긴다
+            Map<Integer, ExceptionFactory> table = new TreeMap<>();
+            register(table, sqlErrorCodes.getBadSqlGrammarCodes(), BadSqlGrammarException::new);
+            register(table, sqlErrorCodes.getInvalidResultSetAccessCodes(), InvalidResultSetAccessException::new);
+            register(table, sqlErrorCodes.getDuplicateKeyCodes(),
+                    (task, sql, ex) -> new DuplicateKeyException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getDataIntegrityViolationCodes(),
+                    (task, sql, ex) -> new DataIntegrityViolationException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getPermissionDeniedCodes(),
+                    (task, sql, ex) -> new PermissionDeniedDataAccessException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getDataAccessResourceFailureCodes(),
+                    (task, sql, ex) -> new DataAccessResourceFailureException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getTransientDataAccessResourceCodes(),
+                    (task, sql, ex) -> new TransientDataAccessResourceException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getCannotAcquireLockCodes(),
+                    (task, sql, ex) -> new CannotAcquireLockException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getDeadlockLoserCodes(),
+                    (task, sql, ex) -> new DeadlockLoserDataAccessException(buildMessage(task, sql, ex), ex));
+            register(table, sqlErrorCodes.getCannotSerializeTransactionCodes(),
+                    (task, sql, ex) -> new CannotSerializeTransactionException(buildMessage(task, sql, ex), ex));
+
+            //SQL State 로 변환하거나 사용자 정의 변환이 있으면 표를 쓰지 않고 모두 fallback 에 맡긴다
+            if (sqlErrorCodes.isUseSqlStateForTranslation()
+                    || sqlErrorCodes.getCustomTranslations() != null
+                    || sqlErrorCodes.getCustomSqlExceptionTranslator() != null) {
+                table.clear();
+            }
+
+            this.errorCodes = new int[table.size()];
+            this.factories = new ExceptionFactory[table.size()];
+            int i = 0;
+            for (Map.Entry<Integer, ExceptionFactory> entry : table.entrySet()) {
+                errorCodes[i] = entry.getKey();
+                factories[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        DataAccessException create(String task, String sql, SQLException ex, int errorCode) {
+            int index = Arrays.binarySearch(errorCodes, errorCode);
+            return index >= 0 ? factories[index].create(task, sql, ex) : null;
+        }
+    }
+
+    private static void register(Map<Integer, ExceptionFactory> table, String[] codes, ExceptionFactory factory) {
+        for (String code : codes) {
+            try {
+                table.putIfAbsent(Integer.valueOf(code), factory);
+            } catch (NumberFormatException e) {
+                //숫자가 아닌 코드는 fallback 에 맡긴다
+            }
+        }
+    }
+
+    private static String buildMessage(String task, String sql, SQLException ex) {
+        return task + "; " + (sql != null ? "SQL [" + sql + "]; " : "") + ex.getMessage();
+    }
+}
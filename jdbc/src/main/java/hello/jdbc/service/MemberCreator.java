@@ -0,0 +1,49 @@
+package hello.jdbc.service;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 키 중복이면 새 아이디를 만들어 다시 저장
+ * 키 중복 예외를 잡아서 복구하지 않고 saveIfAbsent 결과로 판단한다
+ * 충돌이 잦아도 SQLException 생성, 변환, 스택 트레이스 비용이 없다
+ */
+@Slf4j
+public class MemberCreator {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private final MemberRepository memberRepository;
+    private final int maxAttempts;
+
+    public MemberCreator(MemberRepository memberRepository) {
+        this(memberRepository, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public MemberCreator(MemberRepository memberRepository, int maxAttempts) {
+        this.memberRepository = memberRepository;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @return 실제로 저장한 아이디
+     */
+    public String create(String memberId, int money) {
+        String candidate = memberId;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (memberRepository.saveIfAbsent(new Member(candidate, money))) {
+                return candidate;
+            }
+            log.debug("키 중복 memberId={}, attempt={}", candidate, attempt);
+            candidate = generateNewId(memberId);
+        }
+        throw new IllegalStateException("사용할 수 있는 아이디를 찾지 못했습니다 memberId=" + memberId);
+    }
+
+    private String generateNewId(String memberId) {
+        return memberId + ThreadLocalRandom.current().nextInt(10000);
+    }
+}
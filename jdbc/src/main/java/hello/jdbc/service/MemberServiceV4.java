@@ -1,18 +1,19 @@
 package hello.jdbc.service;
 
-import hello.jdbc.domain.Member;
 import hello.jdbc.repository.MemberRepository;
-import hello.jdbc.repository.MemberRepositoryV3;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.SQLException;
+import java.util.NoSuchElementException;
 
 /**
  * 예외 누수 문제 해결
  * SQLException 제거
  *
  * MemberRepository 인터페이스 의존
+ *
+ * 잔액은 money + delta 로 원자적으로 바꾸고 member_id 순서로 잠근다
+ * 많은 이체를 한 트랜잭션으로 묶으려면 TransferEngine 사용
  */
 
 @Slf4j
@@ -29,16 +30,43 @@ public class MemberServiceV4 {
     }
 
     private void bizLogic(String fromId, String toId, int money){
-        Member fromMember = memberRepository.findById(fromId);
-        Member toMember = memberRepository.findById(toId);
+        if (money <= 0) {
+            throw new IllegalArgumentException("이체 금액은 0보다 커야 합니다 money=" + money);
+        }
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("같은 회원에게 이체할 수 없습니다 memberId=" + fromId);
+        }
 
-        memberRepository.update(fromId, fromMember.getMoney() - money);
-        validation(toMember);
-        memberRepository.update(toId, toMember.getMoney() + money);
+        //조회한 잔액으로 계산해서 덮어쓰면 동시 이체가 서로의 결과를 지운다, DB 에서 money + delta 로 바꾼다
+        //항상 member_id 순서로 행을 잠가서 반대 방향 이체끼리 교착 상태에 빠지지 않게 한다
+        boolean withdrawFirst = fromId.compareTo(toId) < 0;
+        if (withdrawFirst) {
+            withdraw(fromId, money);
+        } else {
+            deposit(toId, money);
+        }
+        validation(toId);
+        if (withdrawFirst) {
+            deposit(toId, money);
+        } else {
+            withdraw(fromId, money);
+        }
+    }
+
+    private void withdraw(String memberId, int money) {
+        if (!memberRepository.addMoney(memberId, -money)) {
+            throw new IllegalStateException("잔액 부족 또는 회원 없음 memberId=" + memberId);
+        }
+    }
+
+    private void deposit(String memberId, int money) {
+        if (!memberRepository.addMoney(memberId, money)) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
     }
 
-    private static void validation(Member toMember) {
-        if (toMember.getMemberId().equals("ex")) {
+    private static void validation(String toId) {
+        if (toId.equals("ex")) {
             throw new IllegalStateException("이체중 예외 발생");
         }
     }
@@ -0,0 +1,266 @@
+package hello.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 계좌 이체 엔진
+ * - transfer: 한 건을 바로 자기 트랜잭션에서 처리, money + delta 원자적 갱신 + member_id 순서 잠금
+ * - submit: 큐에 넣고 worker 스레드가 최대 maxBatchSize 건을 한 트랜잭션으로 묶어 처리
+ *   관련 회원 행을 member_id 순서로 한 번에 select ... for update 한 뒤 큐 순서대로 잔액을 검사하고
+ *   회원별 순증감을 JDBC batch update 로 반영한다 (이체 N 건에 왕복 2번)
+ * 잔액 부족이나 없는 회원인 이체는 그 건만 실패하고 나머지는 반영된다
+ * worker 가 끝나면 (close, 인터럽트 등) 더 이상 요청을 받지 않고 남은 요청은 모두 실패시킨다
+ */
+@Slf4j
+public class TransferEngine implements AutoCloseable {
+
+    private static final String ADD_MONEY_SQL = "update member set money = money + ? where member_id = ? and money + ? >= 0";
+    private static final String APPLY_DELTA_SQL = "update member set money = money + ? where member_id = ?";
+
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Transfer> queue = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    //closed 확인과 큐 추가를 묶는 락, close 이후에 큐에 들어가 아무도 처리하지 않는 요청이 없도록 한다
+    private final Object submitLock = new Object();
+    private volatile boolean closed;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedTransferCount = new LongAdder();
+
+    public TransferEngine(DataSource dataSource, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.maxBatchSize = maxBatchSize;
+        this.worker = new Thread(this::run, "transfer-engine");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 한 건 이체, 끝나면 커밋되어 있다
+     */
+    public void transfer(String fromId, String toId, int money) {
+        check(fromId, toId, money);
+        txTemplate.executeWithoutResult(status -> {
+            if (fromId.compareTo(toId) < 0) {
+                withdraw(fromId, money);
+                deposit(toId, money);
+            } else {
+                deposit(toId, money);
+                withdraw(fromId, money);
+            }
+        });
+    }
+
+    /**
+     * 배치 이체 요청, 반영된 트랜잭션이 커밋되면 완료된다
+     * 잔액 부족이면 IllegalStateException, 없는 회원이면 NoSuchElementException 으로 실패
+     */
+    public CompletableFuture<Void> submit(String fromId, String toId, int money) {
+        check(fromId, toId, money);
+        Transfer transfer = new Transfer(fromId, toId, money);
+        synchronized (submitLock) {
+            if (closed) {
+                throw new IllegalStateException("transfer engine is closed");
+            }
+            queue.add(transfer);
+        }
+        return transfer.result;
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getBatchedTransferCount() {
+        return batchedTransferCount.sum();
+    }
+
+    /**
+     * 이미 받은 요청은 모두 처리하고 종료
+     */
+    @Override
+    public void close() {
+        markClosed();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued();
+    }
+
+    private void markClosed() {
+        synchronized (submitLock) {
+            closed = true;
+        }
+    }
+
+    private void failQueued() {
+        Transfer transfer;
+        while ((transfer = queue.poll()) != null) {
+            transfer.result.completeExceptionally(new IllegalStateException("transfer engine is closed"));
+        }
+    }
+
+    private void withdraw(String memberId, int money) {
+        if (template.update(ADD_MONEY_SQL, -money, memberId, -money) == 0) {
+            throw new IllegalStateException("잔액 부족 또는 회원 없음 memberId=" + memberId);
+        }
+    }
+
+    private void deposit(String memberId, int money) {
+        if (template.update(ADD_MONEY_SQL, money, memberId, money) == 0) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+    }
+
+    private void run() {
+        List<Transfer> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Transfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            log.warn("transfer engine worker interrupted, pending={}", queue.size());
+            Thread.currentThread().interrupt();
+        } finally {
+            //정상 종료가 아니어도 (인터럽트, Error) 새 요청을 막고 처리하지 못한 요청을 실패시킨다
+            markClosed();
+            for (Transfer transfer : batch) {
+                transfer.result.completeExceptionally(new IllegalStateException("transfer engine is closed"));
+            }
+            failQueued();
+        }
+    }
+
+    private void process(List<Transfer> batch) {
+        try {
+            txTemplate.executeWithoutResult(status -> applyBatch(batch));
+        } catch (RuntimeException e) {
+            log.error("transfer batch failed size={}", batch.size(), e);
+            for (Transfer transfer : batch) {
+                transfer.result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        batchCount.increment();
+        batchedTransferCount.add(batch.size());
+        for (Transfer transfer : batch) {
+            if (transfer.failure != null) {
+                transfer.result.completeExceptionally(transfer.failure);
+            } else {
+                transfer.result.complete(null);
+            }
+        }
+    }
+
+    private void applyBatch(List<Transfer> batch) {
+        TreeSet<String> memberIds = new TreeSet<>();
+        for (Transfer transfer : batch) {
+            memberIds.add(transfer.fromId);
+            memberIds.add(transfer.toId);
+        }
+        Map<String, Integer> balances = lockBalances(memberIds);
+
+        //큐 순서대로 잔액을 검사, 앞선 이체로 받은 돈은 뒤의 이체에서 쓸 수 있다
+        Map<String, Integer> deltas = new TreeMap<>();
+        for (Transfer transfer : batch) {
+            transfer.failure = null;
+            Integer fromBalance = balances.get(transfer.fromId);
+            Integer toBalance = balances.get(transfer.toId);
+            if (fromBalance == null || toBalance == null) {
+                String missing = fromBalance == null ? transfer.fromId : transfer.toId;
+                transfer.failure = new NoSuchElementException("member not found memberId=" + missing);
+                continue;
+            }
+            if (fromBalance < transfer.money) {
+                transfer.failure = new IllegalStateException("잔액 부족 memberId=" + transfer.fromId);
+                continue;
+            }
+            balances.put(transfer.fromId, fromBalance - transfer.money);
+            balances.put(transfer.toId, toBalance + transfer.money);
+            deltas.merge(transfer.fromId, -transfer.money, Integer::sum);
+            deltas.merge(transfer.toId, transfer.money, Integer::sum);
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                args.add(new Object[]{delta.getValue(), delta.getKey()});
+            }
+        }
+        if (!args.isEmpty()) {
+            template.batchUpdate(APPLY_DELTA_SQL, args);
+        }
+    }
+
+    /**
+     * 관련 회원 행을 member_id 순서로 잠그고 잔액을 읽는다, 없는 회원은 결과에 없다
+     */
+    private Map<String, Integer> lockBalances(TreeSet<String> memberIds) {
+        String placeholders = String.join(", ", Collections.nCopies(memberIds.size(), "?"));
+        String sql = "select member_id, money from member where member_id in (" + placeholders + ")"
+                + " order by member_id for update";
+        Map<String, Integer> balances = new HashMap<>();
+        template.query(sql, rs -> {
+            balances.put(rs.getString("member_id"), rs.getInt("money"));
+        }, memberIds.toArray());
+        return balances;
+    }
+
+    private static void check(String fromId, String toId, int money) {
+        if (money <= 0) {
+            throw new IllegalArgumentException("이체 금액은 0보다 커야 합니다 money=" + money);
+        }
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("같은 회원에게 이체할 수 없습니다 memberId=" + fromId);
+        }
+    }
+
+    private static final class Transfer {
+        final String fromId;
+        final String toId;
+        final int money;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        RuntimeException failure;
+
+        Transfer(String fromId, String toId, int money) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.money = money;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.jdbc.connection;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * H2 서버 없이 도는 테스트용 메모리 DB, 이름이 다르면 다른 DB 라서 테스트끼리 데이터를 나누지 않는다
+ */
+public abstract class MemoryDb {
+
+    public static final String MEMBER_DDL = "create table if not exists member (member_id varchar(10), money integer not null default 0, primary key (member_id))";
+
+    public static String url(String name) {
+        //마지막 커넥션을 닫아도 DB 를 지우지 않는다
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    public static DriverManagerDataSource dataSource(String name) {
+        return new DriverManagerDataSource(url(name), USERNAME, PASSWORD);
+    }
+
+    /**
+     * member 테이블이 없으면 만들고 비운다
+     */
+    public static void resetMemberTable(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute(MEMBER_DDL);
+        template.update("delete from member");
+    }
+}
@@ -0,0 +1,214 @@
+package hello.jdbc.connection.pool;
+
+import hello.jdbc.connection.MemoryDb;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+class SimpleConnectionPoolTest {
+
+    SimpleConnectionPool pool;
+
+    @BeforeEach
+    void before() {
+        pool = new SimpleConnectionPool(MemoryDb.url("pool"), USERNAME, PASSWORD);
+    }
+
+    @AfterEach
+    void after() {
+        pool.close();
+    }
+
+    @Test
+    void 반납한_물리_커넥션을_재사용() throws SQLException {
+        //given
+        Connection con1 = pool.getConnection();
+        Connection physical1 = ((PooledConnection) con1).entry().physical;
+        con1.close();
+
+        //when
+        Connection con2 = pool.getConnection();
+        Connection physical2 = ((PooledConnection) con2).entry().physical;
+        con2.close();
+
+        //then
+        assertThat(physical2).isSameAs(physical1);
+        assertThat(con2).isNotSameAs(con1);
+        assertThat(pool.getMetrics().getCreateCount()).isEqualTo(1);
+        assertThat(pool.getMetrics().getBorrowCount()).isEqualTo(2);
+        assertThat(pool.getMetrics().getIdle()).isEqualTo(1);
+    }
+
+    @Test
+    void 닫은_논리_커넥션은_사용할_수_없다() throws SQLException {
+        //given
+        Connection con = pool.getConnection();
+        con.close();
+
+        //when, then
+        assertThat(con.isClosed()).isTrue();
+        assertThatThrownBy(con::createStatement).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    void 커밋하지_않고_반납하면_롤백() throws SQLException {
+        //given
+        try (Connection con = pool.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute("create table if not exists pool_test(id int)");
+            stmt.execute("delete from pool_test");
+        }
+
+        //when
+        Connection con = pool.getConnection();
+        con.setAutoCommit(false);
+        try (Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("insert into pool_test values (1)");
+        }
+        con.close();
+
+        //then
+        try (Connection next = pool.getConnection(); Statement stmt = next.createStatement()) {
+            assertThat(next.getAutoCommit()).isTrue();
+            ResultSet rs = stmt.executeQuery("select count(*) from pool_test");
+            rs.next();
+            assertThat(rs.getInt(1)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void 최대_크기를_넘으면_타임아웃() throws SQLException {
+        //given
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeoutMillis(100);
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+
+        //when, then
+        assertThatThrownBy(pool::getConnection).isInstanceOf(SQLTimeoutException.class);
+        assertThat(pool.getMetrics().getTimeoutCount()).isEqualTo(1);
+        assertThat(pool.getMetrics().getMaxWaitNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        con1.close();
+        Connection con3 = pool.getConnection();
+        assertThat(pool.getMetrics().getTotal()).isEqualTo(2);
+        con2.close();
+        con3.close();
+    }
+
+    @Test
+    void 동시에_빌려가도_최대_크기를_넘지_않는다() throws Exception {
+        //given
+        int maxSize = 4;
+        int threadCount = 32;
+        pool.setMaximumPoolSize(maxSize);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    try (Connection con = pool.getConnection(); Statement stmt = con.createStatement()) {
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        stmt.execute("select 1");
+                        inUse.decrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        PoolMetrics metrics = pool.getMetrics();
+        log.info("metrics={}", metrics);
+        assertThat(maxInUse.get()).isLessThanOrEqualTo(maxSize);
+        assertThat(metrics.getActive()).isEqualTo(0);
+        assertThat(metrics.getBorrowCount()).isEqualTo(threadCount * 50);
+        assertThat(metrics.getTotal()).isLessThanOrEqualTo(maxSize);
+    }
+
+    @Test
+    void 끊어진_커넥션은_검사해서_교체() throws SQLException {
+        //given
+        pool.setValidationThresholdMillis(0);
+        Connection con1 = pool.getConnection();
+        Connection physical1 = ((PooledConnection) con1).entry().physical;
+        con1.close();
+        physical1.close();
+
+        //when
+        Connection con2 = pool.getConnection();
+
+        //then
+        assertThat(((PooledConnection) con2).entry().physical).isNotSameAs(physical1);
+        assertThat(con2.isValid(1)).isTrue();
+        assertThat(pool.getMetrics().getValidationFailureCount()).isEqualTo(1);
+        assertThat(pool.getMetrics().getTotal()).isEqualTo(1);
+        con2.close();
+    }
+
+    @Test
+    void 반납하지_않은_커넥션을_누수로_감지() throws Exception {
+        //given
+        pool.setLeakDetectionThresholdMillis(100);
+        pool.setHousekeepingPeriodMillis(50);
+
+        //when
+        Connection con = pool.getConnection();
+        Thread.sleep(500);
+
+        //then
+        assertThat(pool.getMetrics().getLeakCount()).isEqualTo(1);
+        con.close();
+        assertThat(pool.getMetrics().getActive()).isEqualTo(0);
+    }
+
+    @Test
+    void 오래_쉰_커넥션은_최소_유휴_수까지_정리() throws Exception {
+        //given
+        pool.setMinimumIdle(1);
+        pool.setIdleTimeoutMillis(100);
+        pool.setHousekeepingPeriodMillis(50);
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+        Connection con3 = pool.getConnection();
+        con1.close();
+        con2.close();
+        con3.close();
+
+        //when
+        Thread.sleep(500);
+
+        //then
+        assertThat(pool.getMetrics().getTotal()).isEqualTo(1);
+        assertThat(pool.getMetrics().getIdle()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,164 @@
+package hello.jdbc.connection.pool;
+
+import hello.jdbc.connection.MemoryDb;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV1;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+class StatementCacheTest {
+
+    private static final String FIND_SQL = "select * from member where member_id = ?";
+
+    SimpleConnectionPool pool;
+
+    @BeforeEach
+    void before() throws SQLException {
+        pool = new SimpleConnectionPool(MemoryDb.url("statementCache"), USERNAME, PASSWORD);
+        pool.setMaximumPoolSize(1);
+        MemoryDb.resetMemberTable(pool);
+    }
+
+    @AfterEach
+    void after() {
+        pool.close();
+    }
+
+    @Test
+    void 같은_SQL은_물리_statement_를_재사용() throws SQLException {
+        //given
+        PreparedStatement physical1 = prepareAndClose(FIND_SQL);
+
+        //when
+        PreparedStatement physical2 = prepareAndClose(FIND_SQL);
+
+        //then
+        assertThat(physical2).isSameAs(physical1);
+        assertThat(physical2.isClosed()).isFalse();
+        assertThat(pool.getMetrics().getStatementCacheHits()).isEqualTo(1);
+        assertThat(pool.getMetrics().getStatementCacheMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void 닫은_논리_statement_는_사용할_수_없다() throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            PreparedStatement pstmt = con.prepareStatement(FIND_SQL);
+            pstmt.close();
+
+            assertThat(pstmt.isClosed()).isTrue();
+            assertThatThrownBy(() -> pstmt.setString(1, "memberA")).isInstanceOf(SQLException.class);
+        }
+    }
+
+    @Test
+    void 사용_중인_SQL을_다시_준비하면_캐시하지_않은_statement() throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            PreparedStatement pstmt1 = con.prepareStatement(FIND_SQL);
+            PreparedStatement pstmt2 = con.prepareStatement(FIND_SQL);
+
+            assertThat(pstmt1).isInstanceOf(CachedPreparedStatement.class);
+            assertThat(pstmt2).isNotInstanceOf(CachedPreparedStatement.class);
+            pstmt1.close();
+            pstmt2.close();
+        }
+    }
+
+    @Test
+    void 가장_오래_안_쓴_statement_를_닫는다() throws SQLException {
+        //given
+        pool.close();
+        pool = new SimpleConnectionPool(URL, "sa", "");
+        pool.setMaximumPoolSize(1);
+        pool.setStatementCacheSize(2);
+        PreparedStatement first = prepareAndClose("select 1");
+        prepareAndClose("select 2");
+        prepareAndClose("select 1");
+        PreparedStatement recent = prepareAndClose("select 2");
+
+        //when
+        prepareAndClose("select 3");
+
+        //then
+        assertThat(pool.getMetrics().getStatementCacheEvictions()).isEqualTo(1);
+        assertThat(first.isClosed()).isTrue();
+        assertThat(recent.isClosed()).isFalse();
+    }
+
+    @Test
+    void 리포지토리_코드_변경_없이_캐시된다() throws SQLException {
+        //given
+        MemberRepositoryV1 repository = new MemberRepositoryV1(pool);
+        repository.save(new Member("memberA", 10000));
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            repository.update("memberA", i);
+            repository.findById("memberA");
+        }
+        repository.delete("memberA");
+
+        //then
+        PoolMetrics metrics = pool.getMetrics();
+        log.info("hitRate={}, metrics={}", metrics.getStatementCacheHitRate(), metrics);
+        assertThat(metrics.getStatementCacheMisses()).isEqualTo(4);
+        assertThat(metrics.getStatementCacheHits()).isEqualTo(18);
+    }
+
+    @Test
+    void 반납하면_statement_설정을_생성_시점_값으로_되돌린다() throws SQLException {
+        //given
+        PreparedStatement physical;
+        int defaultFetchSize;
+        try (Connection con = pool.getConnection(); PreparedStatement pstmt = con.prepareStatement(FIND_SQL)) {
+            physical = ((CachedPreparedStatement) pstmt).delegate();
+            defaultFetchSize = pstmt.getFetchSize();
+            pstmt.setFetchSize(defaultFetchSize + 100);
+            pstmt.setMaxRows(1);
+            pstmt.setQueryTimeout(5);
+        }
+
+        //when
+        try (Connection con = pool.getConnection(); PreparedStatement pstmt = con.prepareStatement(FIND_SQL)) {
+
+            //then
+            assertThat(((CachedPreparedStatement) pstmt).delegate()).isSameAs(physical);
+            assertThat(pstmt.getFetchSize()).isEqualTo(defaultFetchSize);
+            assertThat(pstmt.getMaxRows()).isZero();
+            assertThat(pstmt.getQueryTimeout()).isZero();
+        }
+    }
+
+    @Test
+    void 되돌릴_수_없는_설정을_바꾼_statement_는_버린다() throws SQLException {
+        //given
+        PreparedStatement physical;
+        try (Connection con = pool.getConnection(); PreparedStatement pstmt = con.prepareStatement(FIND_SQL)) {
+            physical = ((CachedPreparedStatement) pstmt).delegate();
+            pstmt.closeOnCompletion();
+        }
+
+        //when
+        PreparedStatement next = prepareAndClose(FIND_SQL);
+
+        //then
+        assertThat(physical.isClosed()).isTrue();
+        assertThat(next).isNotSameAs(physical);
+        assertThat(pool.getMetrics().getStatementCacheMisses()).isEqualTo(2);
+    }
+
+    private PreparedStatement prepareAndClose(String sql) throws SQLException {
+        try (Connection con = pool.getConnection(); PreparedStatement pstmt = con.prepareStatement(sql)) {
+            return ((CachedPreparedStatement) pstmt).delegate();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hello.jdbc.exception.translator;
+
+import hello.jdbc.connection.MemoryDb;
+import hello.jdbc.repository.ex.CachedSQLExceptionTranslator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+class CachedSQLExceptionTranslatorTest {
+
+    DataSource dataSource;
+    CachedSQLExceptionTranslator exTranslator;
+    SQLErrorCodeSQLExceptionTranslator springTranslator;
+
+    @BeforeEach
+    void init() {
+        dataSource = MemoryDb.dataSource("translator");
+        MemoryDb.resetMemberTable(dataSource);
+        new JdbcTemplate(dataSource).update("insert into member(member_id, money) values ('myId', 0)");
+
+        exTranslator = new CachedSQLExceptionTranslator(dataSource);
+        springTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    @Test
+    void 키_중복() {
+        String sql = "insert into member(member_id, money) values ('myId', 0)";
+        SQLException e = execute(sql);
+
+        DataAccessException resultEx = exTranslator.translate("save", sql, e);
+
+        log.info("resultEx", resultEx);
+        assertThat(resultEx).isInstanceOf(DuplicateKeyException.class);
+        assertThat(resultEx.getMessage()).contains("SQL [" + sql + "]");
+        assertThat(resultEx.getCause()).isSameAs(e);
+    }
+
+    @Test
+    void 잘못된_문법() {
+        String sql = "select bad grammar";
+        SQLException e = execute(sql);
+
+        assertThat(exTranslator.translate("select", sql, e)).isInstanceOf(BadSqlGrammarException.class);
+    }
+
+    @Test
+    void 스프링_변환기와_같은_예외() {
+        String[] sqls = {
+                "insert into member(member_id, money) values ('myId', 0)",
+                "select bad grammar",
+                "insert into member(member_id, money) values ('tooLongMemberId', 0)",
+                "insert into member(member_id, money) values ('nullMoney', null)",
+                "select 1 / 0",
+        };
+        for (String sql : sqls) {
+            SQLException e = execute(sql);
+            DataAccessException expected = springTranslator.translate("task", sql, e);
+            DataAccessException actual = exTranslator.translate("task", sql, e);
+
+            log.info("errorCode={}, expected={}", e.getErrorCode(), expected.getClass().getSimpleName());
+            assertThat(actual).isExactlyInstanceOf(expected.getClass());
+            assertThat(actual.getMessage()).isEqualTo(expected.getMessage());
+        }
+    }
+
+    @Test
+    void 표에_없는_코드는_스프링_변환기에_맡긴다() {
+        SQLException e = new SQLException("unknown", "23000", 1);
+
+        DataAccessException resultEx = exTranslator.translate("task", null, e);
+
+        assertThat(resultEx).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void 감싼_예외는_원인의_코드로_변환() {
+        String sql = "insert into member(member_id, money) values ('myId', 0)";
+        SQLException cause = execute(sql);
+        SQLException wrapped = new SQLException("wrapped", null, 0, cause);
+
+        DataAccessException resultEx = exTranslator.translate("save", sql, wrapped);
+
+        assertThat(resultEx).isInstanceOf(DuplicateKeyException.class);
+        assertThat(resultEx.getCause()).isSameAs(wrapped);
+    }
+
+    @Test
+    void 에러_코드는_첫_변환에서_읽는다() {
+        AtomicInteger connections = new AtomicInteger();
+        DataSource counting = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+
+        CachedSQLExceptionTranslator translator = new CachedSQLExceptionTranslator(counting);
+        assertThat(connections.get()).isZero();
+
+        String sql = "select bad grammar";
+        assertThat(translator.translate("select", sql, execute(sql))).isInstanceOf(BadSqlGrammarException.class);
+        assertThat(connections.get()).isEqualTo(1);
+    }
+
+    private SQLException execute(String sql) {
+        try (Connection con = dataSource.getConnection(); PreparedStatement stmt = con.prepareStatement(sql)) {
+            stmt.execute();
+        } catch (SQLException e) {
+            return e;
+        }
+        throw new IllegalStateException("예외가 발생해야 합니다 sql=" + sql);
+    }
+}
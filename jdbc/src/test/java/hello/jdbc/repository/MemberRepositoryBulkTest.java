@@ -0,0 +1,120 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.MemoryDb;
+import hello.jdbc.domain.Member;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class MemberRepositoryBulkTest {
+
+    private static final int MEMBER_COUNT = 2500;
+
+    DriverManagerDataSource dataSource;
+    List<MemberRepository> repositories;
+
+    @BeforeEach
+    void before() {
+        dataSource = MemoryDb.dataSource("memberBulk");
+        MemoryDb.resetMemberTable(dataSource);
+
+        MemberRepositoryV4_1 repositoryV4_1 = new MemberRepositoryV4_1(dataSource);
+        repositoryV4_1.setFetchSize(100);
+        MemberRepositoryV4_2 repositoryV4_2 = new MemberRepositoryV4_2(dataSource);
+        repositoryV4_2.setFetchSize(100);
+        MemberRepositoryV5 repositoryV5 = new MemberRepositoryV5(dataSource);
+        repositoryV5.setFetchSize(100);
+        repositories = List.of(repositoryV4_1, repositoryV4_2, repositoryV5);
+    }
+
+    @Test
+    void saveAll_findAllByIds() {
+        for (MemberRepository repository : repositories) {
+            //given
+            deleteAll();
+            repository.saveAll(members());
+
+            //when
+            List<String> ids = new ArrayList<>();
+            for (int i = MEMBER_COUNT - 1; i >= 0; i -= 2) {
+                ids.add(memberId(i));
+            }
+            ids.add(memberId(1));
+            ids.add("nobody");
+            List<Member> found = repository.findAllByIds(ids);
+
+            //then
+            assertThat(found).hasSize(MEMBER_COUNT / 2);
+            assertThat(found).isSortedAccordingTo((a, b) -> a.getMemberId().compareTo(b.getMemberId()));
+            assertThat(found.get(0)).isEqualTo(new Member(memberId(1), 1));
+        }
+    }
+
+    @Test
+    void updateAll() {
+        for (MemberRepository repository : repositories) {
+            //given
+            deleteAll();
+            repository.saveAll(members());
+            Map<String, Integer> moneyByMemberId = new HashMap<>();
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                moneyByMemberId.put(memberId(i), i * 10);
+            }
+
+            //when
+            repository.updateAll(moneyByMemberId);
+
+            //then
+            assertThat(repository.findById(memberId(0)).getMoney()).isEqualTo(0);
+            assertThat(repository.findById(memberId(MEMBER_COUNT - 1)).getMoney()).isEqualTo((MEMBER_COUNT - 1) * 10);
+        }
+    }
+
+    @Test
+    void forEach() {
+        for (MemberRepository repository : repositories) {
+            //given
+            deleteAll();
+            repository.saveAll(members());
+
+            //when
+            List<String> ids = new ArrayList<>();
+            long[] total = {0};
+            repository.forEach(member -> {
+                ids.add(member.getMemberId());
+                total[0] += member.getMoney();
+            });
+
+            //then
+            assertThat(ids).hasSize(MEMBER_COUNT);
+            assertThat(ids).isSorted();
+            assertThat(total[0]).isEqualTo((long) MEMBER_COUNT * (MEMBER_COUNT - 1) / 2);
+        }
+    }
+
+    private void deleteAll() {
+        new JdbcTemplate(dataSource).update("delete from member");
+    }
+
+    private static List<Member> members() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Member(memberId(i), i));
+        }
+        return members;
+    }
+
+    private static String memberId(int i) {
+        return String.format("m%05d", i);
+    }
+}
@@ -0,0 +1,73 @@
+package hello.jdbc.service;
+
+import hello.jdbc.connection.MemoryDb;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepository;
+import hello.jdbc.repository.MemberRepositoryV4_2;
+import hello.jdbc.repository.MemberRepositoryV5;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Slf4j
+class MemberCreatorTest {
+
+    DriverManagerDataSource dataSource;
+    List<MemberRepository> repositories;
+
+    @BeforeEach
+    void before() {
+        dataSource = MemoryDb.dataSource("memberCreator");
+        MemoryDb.resetMemberTable(dataSource);
+        repositories = List.of(new MemberRepositoryV4_2(dataSource), new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    void saveIfAbsent() {
+        for (MemberRepository repository : repositories) {
+            repository.delete("myId");
+
+            assertThat(repository.saveIfAbsent(new Member("myId", 100))).isTrue();
+            assertThat(repository.saveIfAbsent(new Member("myId", 200))).isFalse();
+            assertThat(repository.findById("myId").getMoney()).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void 키_중복이면_새_아이디로_저장() {
+        for (MemberRepository repository : repositories) {
+            //given
+            repository.delete("myId");
+            MemberCreator memberCreator = new MemberCreator(repository);
+            String first = memberCreator.create("myId", 0);
+
+            //when
+            String second = memberCreator.create("myId", 0);
+
+            //then
+            log.info("first={}, second={}", first, second);
+            assertThat(first).isEqualTo("myId");
+            assertThat(second).startsWith("myId").isNotEqualTo("myId");
+            assertThat(repository.findById(second).getMemberId()).isEqualTo(second);
+            repository.delete(second);
+        }
+    }
+
+    @Test
+    void 시도_횟수를_넘으면_실패() {
+        //given
+        MemberRepository repository = repositories.get(0);
+        repository.delete("myId");
+        MemberCreator memberCreator = new MemberCreator(repository, 1);
+        memberCreator.create("myId", 0);
+
+        //when, then
+        assertThatThrownBy(() -> memberCreator.create("myId", 0))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -13,6 +13,10 @@ import org.springframework.context.annotation.Bean;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -94,4 +98,34 @@ class MemberServiceV4Test {
         assertThat(findMemberA.getMoney()).isEqualTo(10000);
         assertThat(findMemberB.getMoney()).isEqualTo(10000);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("반대 방향 동시 이체")
+    void accountTransferConcurrent() throws Exception {
+        Member memberA = new Member(MEMBER_A, 10000);
+        Member memberB = new Member(MEMBER_B, 10000);
+        memberRepository.save(memberA);
+        memberRepository.save(memberB);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> aToB = executor.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+                memberService.accountTransfer(MEMBER_A, MEMBER_B, 10);
+            }
+        });
+        Future<?> bToA = executor.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+                memberService.accountTransfer(MEMBER_B, MEMBER_A, 10);
+            }
+        });
+        aToB.get(30, TimeUnit.SECONDS);
+        bToA.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Member findMemberA = memberRepository.findById(memberA.getMemberId());
+        Member findMemberB = memberRepository.findById(memberB.getMemberId());
+
+        assertThat(findMemberA.getMoney()).isEqualTo(10000);
+        assertThat(findMemberB.getMoney()).isEqualTo(10000);
+    }
+}
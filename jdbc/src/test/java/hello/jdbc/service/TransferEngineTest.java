@@ -0,0 +1,275 @@
+package hello.jdbc.service;
+
+import hello.jdbc.connection.MemoryDb;
+import hello.jdbc.connection.pool.SimpleConnectionPool;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 동시 이체 후 전체 잔액이 보존되는지, 처리량(transfers/sec) 로그
+ */
+@Slf4j
+class TransferEngineTest {
+
+    //락 대기가 길어도 실패하지 않도록 H2 기본값(1초)보다 길게
+    private static final String URL = MemoryDb.url("transfer") + ";LOCK_TIMEOUT=10000";
+    private static final int MEMBER_COUNT = 10;
+    private static final int INITIAL_MONEY = 10000;
+    private static final int THREAD_COUNT = 16;
+    private static final int TRANSFERS_PER_THREAD = 500;
+
+    SimpleConnectionPool dataSource;
+    JdbcTemplate template;
+    MemberRepositoryV5 memberRepository;
+    TransferEngine engine;
+
+    @BeforeEach
+    void before() {
+        dataSource = new SimpleConnectionPool(URL, USERNAME, PASSWORD);
+        dataSource.setMaximumPoolSize(THREAD_COUNT);
+        template = new JdbcTemplate(dataSource);
+        MemoryDb.resetMemberTable(dataSource);
+        memberRepository = new MemberRepositoryV5(dataSource);
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.save(new Member(memberId(i), INITIAL_MONEY));
+        }
+        engine = new TransferEngine(dataSource, 100);
+    }
+
+    @AfterEach
+    void after() {
+        engine.close();
+        dataSource.close();
+    }
+
+    @Test
+    void 단건_동시_이체_잔액_보존() throws Exception {
+        //given
+        AtomicInteger rejected = new AtomicInteger();
+
+        //when
+        long elapsed = runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int from = random.nextInt(MEMBER_COUNT);
+            int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+            try {
+                engine.transfer(memberId(from), memberId(to), 1 + random.nextInt(500));
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        //then
+        log.info("single transfers/sec={}, rejected={}", transfersPerSecond(elapsed), rejected.get());
+        assertBalanceConserved();
+    }
+
+    @Test
+    void 배치_동시_이체_잔액_보존() throws Exception {
+        //given
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        //when
+        long elapsed = runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int from = random.nextInt(MEMBER_COUNT);
+            int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+            CompletableFuture<Void> result = engine.submit(memberId(from), memberId(to), 1 + random.nextInt(500));
+            synchronized (results) {
+                results.add(result);
+            }
+        }, () -> CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null).join());
+
+        //then
+        long rejected = results.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        log.info("batched transfers/sec={}, rejected={}, batches={}",
+                transfersPerSecond(elapsed), rejected, engine.getBatchCount());
+        assertThat(engine.getBatchedTransferCount()).isEqualTo(THREAD_COUNT * TRANSFERS_PER_THREAD);
+        assertThat(engine.getBatchCount()).isLessThan(THREAD_COUNT * TRANSFERS_PER_THREAD);
+        assertBalanceConserved();
+    }
+
+    @Test
+    void 배치_안에서_잔액_부족인_이체만_거절() {
+        //given
+        memberRepository.update(memberId(0), 100);
+        memberRepository.update(memberId(1), 0);
+
+        //when
+        CompletableFuture<Void> first = engine.submit(memberId(0), memberId(1), 100);
+        CompletableFuture<Void> overdraft = engine.submit(memberId(0), memberId(1), 1);
+        CompletableFuture<Void> forward = engine.submit(memberId(1), memberId(2), 50);
+        CompletableFuture<Void> unknown = engine.submit(memberId(1), "nobody", 10);
+
+        //then
+        first.join();
+        forward.join();
+        assertThatThrownBy(overdraft::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(unknown::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(NoSuchElementException.class);
+        assertThat(memberRepository.findById(memberId(0)).getMoney()).isEqualTo(0);
+        assertThat(memberRepository.findById(memberId(1)).getMoney()).isEqualTo(50);
+        assertThat(memberRepository.findById(memberId(2)).getMoney()).isEqualTo(INITIAL_MONEY + 50);
+    }
+
+    @Test
+    void 단건_이체_잔액_부족이면_롤백() {
+        //given
+        memberRepository.update(memberId(0), 100);
+
+        //when, then
+        assertThatThrownBy(() -> engine.transfer(memberId(0), memberId(1), 101))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> engine.transfer(memberId(0), "nobody", 10))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(memberRepository.findById(memberId(0)).getMoney()).isEqualTo(100);
+        assertThat(memberRepository.findById(memberId(1)).getMoney()).isEqualTo(INITIAL_MONEY);
+    }
+
+    @Test
+    void close_와_동시에_요청해도_모든_요청이_끝난다() throws Exception {
+        //given
+        List<CompletableFuture<Void>> results = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> submitter = executor.submit(() -> {
+            try {
+                while (true) {
+                    results.add(engine.submit(memberId(0), memberId(1), 1));
+                }
+            } catch (IllegalStateException e) {
+                //close 이후 요청은 거절
+            }
+        });
+        while (results.size() < 100) {
+            Thread.sleep(1);
+        }
+
+        //when
+        engine.close();
+        submitter.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null)
+                .get(5, TimeUnit.SECONDS);
+        assertThat(results).allMatch(CompletableFuture::isDone);
+        assertBalanceConserved();
+    }
+
+    @Test
+    void worker_가_인터럽트되면_남은_요청을_실패시킨다() throws Exception {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        //worker 가 커넥션을 얻는 중에 멈추게 한다
+        DelegatingDataSource stuckDataSource = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                worker.set(Thread.currentThread());
+                blocked.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("interrupted", e);
+                }
+                return super.getConnection();
+            }
+        };
+        TransferEngine stuckEngine = new TransferEngine(stuckDataSource, 1);
+        CompletableFuture<Void> inFlight = stuckEngine.submit(memberId(0), memberId(1), 10);
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> queued = stuckEngine.submit(memberId(1), memberId(2), 10);
+
+        //when
+        worker.get().interrupt();
+        worker.get().join(TimeUnit.SECONDS.toMillis(5));
+
+        //then
+        assertThat(worker.get().isAlive()).isFalse();
+        assertThat(inFlight).isCompletedExceptionally();
+        assertThatThrownBy(queued::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> stuckEngine.submit(memberId(0), memberId(1), 10))
+                .isInstanceOf(IllegalStateException.class);
+        stuckEngine.close();
+        assertBalanceConserved();
+    }
+
+    private long runConcurrently(Runnable transfer) throws Exception {
+        return runConcurrently(transfer, () -> {
+        });
+    }
+
+    /**
+     * THREAD_COUNT 스레드가 TRANSFERS_PER_THREAD 번씩 실행, 완료 대기까지 걸린 나노초
+     */
+    private long runConcurrently(Runnable transfer, Runnable awaitCompletion) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                    transfer.run();
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        awaitCompletion.run();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private static long transfersPerSecond(long elapsedNanos) {
+        return (long) THREAD_COUNT * TRANSFERS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private void assertBalanceConserved() {
+        Integer total = template.queryForObject("select sum(money) from member", Integer.class);
+        Integer negative = template.queryForObject("select count(*) from member where money < 0", Integer.class);
+        assertThat(total).isEqualTo(MEMBER_COUNT * INITIAL_MONEY);
+        assertThat(negative).isEqualTo(0);
+    }
+
+    private static String memberId(int i) {
+        return "member" + i;
+    }
+}
@@ -0,0 +1,86 @@
+package jpabook.jpashop;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Item.Item;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (H2 메모리 DB, SQL 로그 끔)
+ */
+public class JpashopBenchmarkContext {
+
+    private static final int MEMBER_COUNT = 100;
+    private static final int ITEM_COUNT = 100;
+    private static final int FLUSH_SIZE = 500;
+
+    public static ConfigurableApplicationContext start(String name, String... extraArgs) {
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn"};
+        String[] allArgs = new String[args.length + extraArgs.length];
+        System.arraycopy(args, 0, allArgs, 0, args.length);
+        System.arraycopy(extraArgs, 0, allArgs, args.length, extraArgs.length);
+        //커맨드라인 인자는 application.properties 보다 우선한다
+        return new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(allArgs);
+    }
+
+    /**
+     * 회원 100명, 상품 100개, 주문 orderCount 건 (주문당 상품 itemsPerOrder 개)
+     */
+    public static void seedOrders(ConfigurableApplicationContext context, int orderCount, int itemsPerOrder) {
+        EntityManager em = context.getBean(EntityManager.class);
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+
+        Long[] memberIds = new Long[MEMBER_COUNT];
+        Long[] itemIds = new Long[ITEM_COUNT];
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                member.setAddress(new Address("city" + i % 10, "street", "zip"));
+                em.persist(member);
+                memberIds[i] = member.getId();
+            }
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                Book book = new Book();
+                book.setName("book" + i);
+                book.setPrice(1000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE);
+                em.persist(book);
+                itemIds[i] = book.getId();
+            }
+        });
+
+        for (int start = 0; start < orderCount; start += FLUSH_SIZE) {
+            int end = Math.min(start + FLUSH_SIZE, orderCount);
+            int from = start;
+            tx.executeWithoutResult(status -> {
+                for (int i = from; i < end; i++) {
+                    Member member = em.find(Member.class, memberIds[i % MEMBER_COUNT]);
+                    OrderItem[] orderItems = new OrderItem[itemsPerOrder];
+                    for (int j = 0; j < itemsPerOrder; j++) {
+                        Item item = em.find(Item.class, itemIds[(i + j) % ITEM_COUNT]);
+                        orderItems[j] = OrderItem.createOrderItem(item, item.getPrice(), 1);
+                    }
+                    Delivery delivery = new Delivery();
+                    delivery.setAddress(member.getAddress());
+                    delivery.setStatus(DeliveryStatus.READY);
+                    em.persist(Order.createOrder(member, delivery, orderItems));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.JpashopBenchmarkContext;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 1만 건 x 상품 5개, 100건 페이지 주문 그래프 조회 지연 시간
+ * default_batch_fetch_size(전역 100) 지연 로딩과 OrderGraphRepository 명시적 IN DTO 조회 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderGraphBenchmark {
+
+    private static final int ORDER_COUNT = 10_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int OFFSET = 5_000;
+    private static final int LIMIT = 100;
+
+    @Param({"10", "50", "100"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    OrderRepository orderRepository;
+    OrderGraphRepository orderGraphRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopBenchmarkContext.start("orderGraph");
+        JpashopBenchmarkContext.seedOrders(context, ORDER_COUNT, ITEMS_PER_ORDER);
+        tx = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        tx.setReadOnly(true);
+        orderRepository = context.getBean(OrderRepository.class);
+        orderGraphRepository = context.getBean(OrderGraphRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int defaultBatchFetch() {
+        return tx.execute(status -> touch(orderRepository.findAllWithMemberDelivery(OFFSET, LIMIT)));
+    }
+
+    @Benchmark
+    public int graphRepository() {
+        return tx.execute(status -> touchDto(orderGraphRepository.findAllWithItem(OFFSET, LIMIT, batchSize)));
+    }
+
+    private static int touch(List<Order> orders) {
+        int sum = 0;
+        for (Order order : orders) {
+            sum += order.getMember().getName().length();
+            for (OrderItem orderItem : order.getOrderItems()) {
+                sum += orderItem.getItem().getName().length();
+            }
+        }
+        return sum;
+    }
+
+    private static int touchDto(List<OrderQueryDto> orders) {
+        int sum = 0;
+        for (OrderQueryDto order : orders) {
+            sum += order.getName().length();
+            for (OrderItemQueryDto orderItem : order.getOrderItems()) {
+                sum += orderItem.getItemName().length();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.JpashopBenchmarkContext;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 10만 건, 검색 조건 조합별 첫 페이지와 키셋 다음 페이지 지연 시간
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderSearchBenchmark {
+
+    private static final int ORDER_COUNT = 100_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"NONE", "STATUS", "NAME", "STATUS_NAME"})
+    String condition;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    OrderRepository orderRepository;
+    OrderSearch orderSearch;
+    OrderCursor secondPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopBenchmarkContext.start("orderSearch");
+        JpashopBenchmarkContext.seedOrders(context, ORDER_COUNT, 1);
+        tx = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        tx.setReadOnly(true);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        OrderStatus status = condition.contains("STATUS") ? OrderStatus.ORDER : null;
+        //시드 회원 이름은 member0 ~ member99
+        String memberName = condition.contains("NAME") ? "member7" : null;
+        orderSearch = OrderSearch.of(status, memberName);
+        secondPage = tx.execute(s -> {
+            List<Order> first = orderRepository.search(orderSearch, null, PAGE_SIZE);
+            return OrderCursor.after(first.get(first.size() - 1));
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int firstPage() {
+        return tx.execute(s -> orderRepository.search(orderSearch, null, PAGE_SIZE).size());
+    }
+
+    @Benchmark
+    public int nextPage() {
+        return tx.execute(s -> orderRepository.search(orderSearch, secondPage, PAGE_SIZE).size());
+    }
+}
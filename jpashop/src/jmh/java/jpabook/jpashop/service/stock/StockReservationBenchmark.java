@@ -0,0 +1,81 @@
+package jpabook.jpashop.service.stock;
+
+import jpabook.jpashop.JpashopBenchmarkContext;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.service.OrderFacade;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인기 상품 하나에 8 스레드가 1개씩 주문, 재고 차감 방식별 처리량
+ * FLASH_SALE 은 FlashSaleService (메모리 카운터), 나머지는 OrderFacade + StockStrategy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class StockReservationBenchmark {
+
+    //측정 중 재고가 떨어지지 않을 만큼
+    private static final int STOCK = 100_000_000;
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC", "CONDITIONAL_UPDATE", "FLASH_SALE"})
+    String strategy;
+
+    ConfigurableApplicationContext context;
+    OrderFacade orderFacade;
+    FlashSaleService flashSaleService;
+    Long memberId;
+    Long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpashopBenchmarkContext.start("stock", "--jpashop.stock.max-attempts=1000");
+        orderFacade = context.getBean(OrderFacade.class);
+        flashSaleService = context.getBean(FlashSaleService.class);
+        EntityManager em = context.getBean(EntityManager.class);
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+
+        tx.executeWithoutResult(status -> {
+            Member member = new Member();
+            member.setName("member");
+            member.setAddress(new Address("city", "street", "zip"));
+            em.persist(member);
+            memberId = member.getId();
+
+            Book book = new Book();
+            book.setName("hot");
+            book.setPrice(1000);
+            book.setStockQuantity(STOCK);
+            em.persist(book);
+            itemId = book.getId();
+        });
+        if ("FLASH_SALE".equals(strategy)) {
+            flashSaleService.open(itemId, STOCK);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long order() {
+        try {
+            if ("FLASH_SALE".equals(strategy)) {
+                return flashSaleService.order(memberId, itemId, 1);
+            }
+            return orderFacade.order(memberId, itemId, 1, StockStrategy.valueOf(strategy));
+        } catch (NotEnoughStockException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package jpabook.jpashop;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Item.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트용 주문 대량 적재 (write 프로필), jpashop.loader.orders 건을 시작 시 넣는다
+ * CHUNK_SIZE 주문마다 트랜잭션 하나, flush/clear 로 영속성 컨텍스트를 비운다. order_summary 도 함께 넣는다
+ * 회원/상품은 프록시로만 참조하고 요약에 필요한 이름은 적재할 때 만든 값을 쓰므로 회원/상품 select 가 없다
+ * INSERT 는 hibernate.jdbc.batch_size 단위 배치로, id 는 시퀀스 호출 한 번에 50개씩 받는다
+ */
+@Slf4j
+@Component
+@Profile("write")
+public class OrderBulkLoader implements ApplicationRunner {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MEMBER_COUNT = 1000;
+    static final int ITEM_COUNT = 1000;
+    static final int MAX_ITEMS_PER_ORDER = 3;
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final long orderCount;
+
+    public OrderBulkLoader(EntityManager em, TransactionTemplate tx,
+                           @Value("${jpashop.loader.orders:0}") long orderCount) {
+        this.em = em;
+        this.tx = tx;
+        this.orderCount = orderCount;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (orderCount > 0) {
+            load(orderCount);
+        }
+    }
+
+    public void load(long orderCount) {
+        long start = System.nanoTime();
+        Long[] memberIds = new Long[MEMBER_COUNT];
+        String[] memberNames = new String[MEMBER_COUNT];
+        Long[] itemIds = new Long[ITEM_COUNT];
+        String[] itemNames = new String[ITEM_COUNT];
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                Member member = new Member();
+                member.setName("loader" + i);
+                member.setAddress(new Address("city" + i % 10, "street", "zip"));
+                em.persist(member);
+                memberIds[i] = member.getId();
+                memberNames[i] = member.getName();
+            }
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                Book book = new Book();
+                book.setName("loader book" + i);
+                book.setPrice(1000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE);
+                em.persist(book);
+                itemIds[i] = book.getId();
+                itemNames[i] = book.getName();
+            }
+        });
+
+        for (long from = 0; from < orderCount; from += CHUNK_SIZE) {
+            long to = Math.min(from + CHUNK_SIZE, orderCount);
+            long first = from;
+            tx.executeWithoutResult(status -> insertOrders(first, to, memberIds, memberNames, itemIds, itemNames));
+            if ((to / CHUNK_SIZE) % 100 == 0) {
+                log.info("loaded orders: {}", to);
+            }
+        }
+        log.info("loaded {} orders in {}ms", orderCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void insertOrders(long from, long to, Long[] memberIds, String[] memberNames,
+                              Long[] itemIds, String[] itemNames) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = from; i < to; i++) {
+            //참조만 필요하므로 select 없이 프록시를 쓴다, clear 이후라 프록시 필드를 읽으면 select 가 나간다
+            int memberIndex = (int) (i % MEMBER_COUNT);
+            Member member = em.getReference(Member.class, memberIds[memberIndex]);
+            int lines = 1 + random.nextInt(MAX_ITEMS_PER_ORDER);
+            OrderItem[] orderItems = new OrderItem[lines];
+            int mainItemIndex = 0;
+            for (int j = 0; j < lines; j++) {
+                int itemIndex = random.nextInt(ITEM_COUNT);
+                if (j == 0) {
+                    mainItemIndex = itemIndex;
+                }
+                Item item = em.getReference(Item.class, itemIds[itemIndex]);
+                //재고 차감(상품 UPDATE) 없이 주문상품만 만든다
+                orderItems[j] = OrderItem.createReservedOrderItem(item, 1000, 1 + random.nextInt(5));
+            }
+            Delivery delivery = new Delivery();
+            delivery.setAddress(new Address("city", "street", "zip"));
+            delivery.setStatus(DeliveryStatus.READY);
+            Order order = Order.createOrderForBulkLoad(member, delivery, orderItems);
+            em.persist(order);
+            em.persist(summaryOf(order, memberIds[memberIndex], memberNames[memberIndex], itemNames[mainItemIndex]));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * OrderSummary.createFrom 과 같은 값, 회원/상품 이름은 프록시 대신 적재한 값에서 가져온다
+     */
+    private static OrderSummary summaryOf(Order order, Long memberId, String memberName, String mainItemName) {
+        int itemCount = 0;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            itemCount += orderItem.getCount();
+        }
+        OrderItem main = order.getOrderItems().get(0);
+        return new OrderSummary(order.getId(), memberId, memberName, order.getOrderDate(), order.getStatus(),
+                order.getTotalPrice(), itemCount, mainItemName, main.getOrderPrice(), main.getCount());
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.api;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 2차 캐시 리전별 적중률 (hibernate.generate_statistics=true 일 때만 집계된다)
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsApiController {
+
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/api/cache/stats")
+    public Map<String, RegionStatsDto> stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatsDto> result = new LinkedHashMap<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                result.put(regionName, new RegionStatsDto(region));
+            }
+        }
+        return result;
+    }
+
+    @Data
+    static class RegionStatsDto {
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private long elementCountInMemory;
+        private double hitRatio;
+
+        public RegionStatsDto(CacheRegionStatistics region) {
+            hitCount = region.getHitCount();
+            missCount = region.getMissCount();
+            putCount = region.getPutCount();
+            //지원하지 않는 캐시 구현은 음수
+            elementCountInMemory = region.getElementCountInMemory();
+            long total = hitCount + missCount;
+            hitRatio = total == 0 ? 0 : (double) hitCount / total;
+        }
+    }
+}
@@ -4,19 +4,37 @@ import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderGraphRepository;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
 import jpabook.jpashop.repository.order.query.OrderFlatDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderFacade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,6 +43,9 @@ public class OrderApiController {
 
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderGraphRepository orderGraphRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderFacade orderFacade;
 
     @GetMapping("/api/v1/orders")
     public List<Order> ordersV1() {
@@ -69,6 +90,17 @@ public class OrderApiController {
         return result;
     }
 
+    /**
+     * 컬렉션을 조인하지 않고 페이징, orderItems + item 은 IN 쿼리 한 번 (batchSize 단위)
+     */
+    @GetMapping("/api/v3.2/orders")
+    public List<OrderQueryDto> ordersV3_graph(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestParam(value = "batchSize", defaultValue = "100") int batchSize) {
+        return orderGraphRepository.findAllWithItem(offset, limit, batchSize);
+    }
+
     @GetMapping("/api/v4/orders")
     public List<OrderQueryDto> ordersV4() {
         return orderQueryRepository.findOrderQueryDtos();
@@ -84,6 +116,64 @@ public class OrderApiController {
         return orderQueryRepository.findAllByDto_flat();
     }
 
+    /**
+     * v6 결과를 주문 단위로 묶어서 스트리밍, 전체 결과를 메모리에 올리지 않는다 (대량 export 용)
+     * 중간에 실패하면 배열을 닫지 않고 예외를 다시 던진다, 잘린 결과가 정상 JSON 으로 보이지 않게 한다
+     * 전체 export 는 오래 걸리므로 MVC 비동기 타임아웃(spring.mvc.async.request-timeout)을 길게 둔다
+     */
+    @GetMapping("/api/v6/orders/stream")
+    public ResponseEntity<StreamingResponseBody> ordersV6_stream() {
+        StreamingResponseBody body = out -> {
+            SequenceWriter writer = objectMapper.writer().writeValuesAsArray(out);
+            orderQueryRepository.streamAllByDto(order -> {
+                try {
+                    writer.write(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            //정상 종료에서만 닫는 ']' 를 쓴다
+            writer.close();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * 장바구니 주문, 같은 상품이 여러 줄이면 수량을 합친다
+     */
+    @PostMapping("/api/v2/orders")
+    public CreateOrderResponse createOrderV2(@RequestBody @Valid CreateOrderRequest request) {
+        Map<Long, Integer> itemCounts = request.getLines().stream()
+                .collect(Collectors.toMap(OrderLineRequest::getItemId, OrderLineRequest::getCount,
+                        Integer::sum, LinkedHashMap::new));
+        Long id = orderFacade.checkout(request.getMemberId(), itemCounts);
+        return new CreateOrderResponse(id);
+    }
+
+    @Data
+    static class CreateOrderRequest {
+        @NotNull
+        private Long memberId;
+        @NotEmpty
+        @Size(max = 100)
+        private List<@Valid OrderLineRequest> lines;
+    }
+
+    @Data
+    static class OrderLineRequest {
+        @NotNull
+        private Long itemId;
+        @Positive
+        private int count;
+    }
+
+    @Data
+    static class CreateOrderResponse {
+        private final Long id;
+    }
+
     @Data
     static class OrderDto {
 
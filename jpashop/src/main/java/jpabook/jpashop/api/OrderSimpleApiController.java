@@ -3,12 +3,18 @@ package jpabook.jpashop.api;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.OrderSummaryRepository;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
@@ -23,6 +29,7 @@ import java.util.stream.Collectors;
 public class OrderSimpleApiController {
 
     private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     @GetMapping("/api/v1/simple-orders")
     public List<Order> ordersV1() {
@@ -56,6 +63,50 @@ public class OrderSimpleApiController {
     }
 
 
+    /**
+     * 조건 검색 + 키셋 페이징, 다음 페이지는 응답 마지막 주문의 orderDate, orderId 를 cursorDate, cursorId 로 넘긴다
+     */
+    @GetMapping("/api/v6/simple-orders")
+    public List<SimpleOrderDto> ordersV6(@ModelAttribute OrderSearch orderSearch,
+                                         @RequestParam(value = "cursorDate", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+                                         @RequestParam(value = "cursorId", required = false) Long cursorId,
+                                         @RequestParam(value = "size", defaultValue = "100") int size) {
+        OrderCursor after = cursorDate == null || cursorId == null ? null : new OrderCursor(cursorDate, cursorId);
+        return orderRepository.search(orderSearch, after, size).stream()
+                .map(o -> new SimpleOrderDto(o))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * order_summary 에서 바로 조회, 총액과 수량을 위해 주문상품을 읽지 않는다
+     */
+    @GetMapping("/api/v5/simple-orders")
+    public List<OrderSummaryDto> ordersV5(@ModelAttribute OrderSearch orderSearch) {
+        return orderSummaryRepository.findAll(orderSearch).stream()
+                .map(s -> new OrderSummaryDto(s))
+                .collect(Collectors.toList());
+    }
+
+    @Data
+    static class OrderSummaryDto {
+        private Long orderId;
+        private String name;
+        private LocalDateTime orderDate;
+        private OrderStatus orderStatus;
+        private int totalPrice;
+        private int itemCount;
+
+        public OrderSummaryDto(OrderSummary orderSummary) {
+            orderId = orderSummary.getOrderId();
+            name = orderSummary.getMemberName();
+            orderDate = orderSummary.getOrderDate();
+            orderStatus = orderSummary.getStatus();
+            totalPrice = orderSummary.getTotalPrice();
+            itemCount = orderSummary.getItemCount();
+        }
+    }
+
     @Data
     static class SimpleOrderDto {
         private Long orderId;
@@ -1,25 +1,41 @@
 package jpabook.jpashop.domain;
 
 import jpabook.jpashop.domain.Item.Item;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_category_path", columnList = "path"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Getter
 @Setter
 public class Category {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
     @Column(name = "category_id")
     private Long id;
 
     private String name;
 
+    /**
+     * 루트부터 자신까지의 id 경로 (예: /1/5/9/), 하위 트리 조회는 path like '/1/5/%'
+     * id 가 있어야 하므로 persist 직후(CategoryRepository.save)와 addChildCategory 에서 채운다
+     */
+    @Setter(AccessLevel.NONE)
+    private String path;
+
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-items")
     @JoinTable(name = "category_item",
             joinColumns = @JoinColumn(name = "category_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id"))
@@ -30,10 +46,28 @@ public class Category {
     private Category parent;
 
     @OneToMany(mappedBy = "parent")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-child")
     private List<Category> child = new ArrayList<>();
 
     public void addChildCategory(Category child) {
         this.child.add(child);
         child.setParent(this);
+        child.refreshPath();
+    }
+
+    public void refreshPath() {
+        if (id == null || (parent != null && parent.getPath() == null)) {
+            //부모가 아직 persist 전이면 부모가 persist 될 때 채운다
+            return;
+        }
+        String newPath = (parent == null ? "/" : parent.getPath()) + id + "/";
+        if (newPath.equals(path)) {
+            return;
+        }
+        path = newPath;
+        //다른 부모 밑으로 옮기면 하위 트리 전체 경로가 바뀐다
+        for (Category c : child) {
+            c.refreshPath();
+        }
     }
 }
@@ -11,14 +11,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date, order_id"),
+        @Index(name = "idx_orders_date", columnList = "order_date, order_id")})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
@@ -34,6 +37,7 @@ public class Order {
     @JoinColumn(name = "delivery_id")
     private Delivery delivery;
 
+    @Column(name = "order_date")
     private LocalDateTime orderDate;
 
     @Enumerated(EnumType.STRING)
@@ -58,13 +62,28 @@ public class Order {
     public static Order createOrder(Member member, Delivery delivery, OrderItem... orderItems) {
         Order order = new Order();
         order.setMember(member);
-        order.setDelivery(delivery);
+        order.init(delivery, orderItems);
+        return order;
+    }
+
+    /**
+     * 대량 적재용, 연관관계 주인(order.member)만 설정한다
+     * member.getOrders() 를 건드리지 않으므로 회원 프록시를 초기화(select)하지 않는다
+     */
+    public static Order createOrderForBulkLoad(Member member, Delivery delivery, OrderItem... orderItems) {
+        Order order = new Order();
+        order.member = member;
+        order.init(delivery, orderItems);
+        return order;
+    }
+
+    private void init(Delivery delivery, OrderItem... orderItems) {
+        setDelivery(delivery);
         for (OrderItem orderItem : orderItems) {
-            order.addOrderItem(orderItem);
+            addOrderItem(orderItem);
         }
-        order.setStatus(OrderStatus.ORDER);
-        order.setOrderDate(LocalDateTime.now());
-        return order;
+        setStatus(OrderStatus.ORDER);
+        setOrderDate(LocalDateTime.now());
     }
 
     // 비즈니스 로직
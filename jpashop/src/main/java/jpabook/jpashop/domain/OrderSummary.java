@@ -0,0 +1,81 @@
+package jpabook.jpashop.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 목록용 읽기 모델, 주문 하나당 한 행
+ * 주문 생성/취소(OrderService), 회원 이름 변경(MemberService)과 같은 트랜잭션에서 갱신한다
+ * 어긋나면 OrderSummaryRebuildJob 으로 다시 만든다
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_status", columnList = "status, order_id"),
+        @Index(name = "idx_order_summary_member_name", columnList = "member_name, order_id"),
+        @Index(name = "idx_order_summary_member_id", columnList = "member_id")})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    //주문 id 를 그대로 쓴다
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+    @Column(name = "member_name")
+    private String memberName;
+
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private int totalPrice;
+    //주문상품 수량 합계
+    private int itemCount;
+
+    //대표상품 (첫 번째 주문상품)
+    private String mainItemName;
+    private int mainItemPrice;
+    private int mainItemCount;
+
+    public OrderSummary(Long orderId, Long memberId, String memberName, LocalDateTime orderDate, OrderStatus status,
+                        int totalPrice, int itemCount, String mainItemName, int mainItemPrice, int mainItemCount) {
+        this.orderId = orderId;
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.itemCount = itemCount;
+        this.mainItemName = mainItemName;
+        this.mainItemPrice = mainItemPrice;
+        this.mainItemCount = mainItemCount;
+    }
+
+    /**
+     * 방금 만든(또는 컬렉션이 로딩된) 주문에서 생성
+     */
+    public static OrderSummary createFrom(Order order) {
+        int itemCount = 0;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            itemCount += orderItem.getCount();
+        }
+        OrderItem main = order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
+        return new OrderSummary(order.getId(), order.getMember().getId(), order.getMember().getName(),
+                order.getOrderDate(), order.getStatus(), order.getTotalPrice(), itemCount,
+                main == null ? null : main.getItem().getName(),
+                main == null ? 0 : main.getOrderPrice(),
+                main == null ? 0 : main.getCount());
+    }
+
+    public void changeStatus(OrderStatus status) {
+        this.status = status;
+    }
+}
@@ -53,6 +53,7 @@ public class initDb {
             delivery.setAddress(member.getAddress());
             Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
             em.persist(order);
+            em.persist(OrderSummary.createFrom(order));
         }
 
         public void dbInit2() {
@@ -80,6 +81,7 @@ public class initDb {
             delivery.setAddress(member.getAddress());
             Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
             em.persist(order);
+            em.persist(OrderSummary.createFrom(order));
         }
     }
 }
@@ -0,0 +1,52 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.Item.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * persist 로 id(시퀀스)를 받은 뒤 경로를 채운다, 경로는 flush 때 UPDATE 로 반영된다
+     */
+    public void save(Category category) {
+        em.persist(category);
+        category.refreshPath();
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    /**
+     * 트리 스냅샷용, 행마다 {category id, parent id}
+     */
+    public List<Object[]> findAllIdAndParentId() {
+        return em.createQuery("select c.id, p.id from Category c left join c.parent p order by c.id", Object[].class)
+                .getResultList();
+    }
+
+    /**
+     * root 하위 트리(root 포함)에 속한 상품, category.path 인덱스 범위 조회 + category_item 조인 한 번
+     */
+    public List<Item> findItemsInSubtree(Category root) {
+        if (root.getPath() == null) {
+            throw new IllegalStateException("category path is not set: " + root.getId());
+        }
+        return em.createQuery(
+                        "select distinct i from Item i" +
+                                " join i.categories c" +
+                                " where c.path like :path" +
+                                " order by i.id", Item.class)
+                .setParameter("path", root.getPath() + "%")
+                .getResultList();
+    }
+}
@@ -2,9 +2,12 @@ package jpabook.jpashop.repository;
 
 import jpabook.jpashop.domain.Item.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -25,8 +28,56 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    /**
+     * select ... for update, 트랜잭션이 끝날 때까지 같은 상품의 다른 주문은 대기한다
+     */
+    public Item findOneForUpdate(Long id) {
+        return em.find(Item.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * id 오름차순 IN 조회, lockMode 가 PESSIMISTIC_WRITE 면 같은 순서로 행을 잠근다
+     * IN 파라미터 개수는 OrderGraphRepository 와 같은 고정 크기로 맞춘다
+     */
+    public List<Item> findAllById(List<Long> ids, LockModeType lockMode) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createQuery("select i from Item i where i.id in :ids order by i.id", Item.class)
+                .setParameter("ids", OrderGraphRepository.pad(ids))
+                .setLockMode(lockMode)
+                .getResultList();
+    }
+
+    /**
+     * 재고가 충분할 때만 차감하는 조건부 UPDATE, 차감했으면 1 아니면 0
+     * 벌크 연산이라 영속성 컨텍스트를 거치지 않는다. 이미 조회한 Item 은 refresh 해야 한다
+     * 2차 캐시 item 영역 전체와 item 쿼리 캐시도 비워진다 (StockStrategy.CONDITIONAL_UPDATE 참고)
+     */
+    public int removeStock(Long id, int quantity) {
+        return em.createQuery(
+                        "update Item i" +
+                                " set i.stockQuantity = i.stockQuantity - :quantity, i.version = i.version + 1" +
+                                " where i.id = :id and i.stockQuantity >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public int addStock(Long id, int quantity) {
+        return em.createQuery(
+                        "update Item i" +
+                                " set i.stockQuantity = i.stockQuantity + :quantity, i.version = i.version + 1" +
+                                " where i.id = :id")
+                .setParameter("quantity", quantity)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
     public List<Item> findAll() {
+        //쿼리 캐시에는 id 만, 엔티티는 2차 캐시(item)에서 가져온다. item 테이블이 바뀌면 무효화된다
         return em.createQuery("select i from Item i", Item.class)
+                .setHint(QueryHints.HINT_CACHEABLE, true)
                 .getResultList();
     }
 }
@@ -0,0 +1,28 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Order;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 검색 키셋 위치, 이 주문보다 (orderDate, id) 가 작은 주문부터 조회한다
+ */
+@Getter
+public class OrderCursor {
+
+    private final LocalDateTime orderDate;
+    private final Long orderId;
+
+    public OrderCursor(LocalDateTime orderDate, Long orderId) {
+        if (orderDate == null || orderId == null) {
+            throw new IllegalArgumentException("orderDate and orderId are required");
+        }
+        this.orderDate = orderDate;
+        this.orderId = orderId;
+    }
+
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+}
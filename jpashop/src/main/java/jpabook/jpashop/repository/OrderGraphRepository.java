@@ -0,0 +1,112 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 그래프(Order -> OrderItem -> Item) 페이징 조회
+ * 1. Order + Member + Delivery (xToOne) 를 조인해서 페이징
+ * 2. 페이지의 OrderItem + Item 을 order id IN 쿼리로 조회해서 각 주문에 붙인다
+ *    Order 를 다시 조인해서 주문 컬럼이 상품 수만큼 반복되지 않는다
+ *
+ * 엔티티 대신 DTO 로 조회한다. OSIV 로 공유되는 영속성 컨텍스트의 Order 를 분리하거나 컬렉션을 바꾸지 않는다.
+ *
+ * default_batch_fetch_size 와 달리 IN 크기를 호출마다 정할 수 있고,
+ * IN 파라미터 개수를 몇 가지 고정 크기로 맞춰서 같은 SQL 이 재사용되게 한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderGraphRepository {
+
+    //IN 파라미터 개수, 남는 자리는 마지막 id 로 채운다
+    static final int[] IN_BUCKETS = {1, 10, 50, 100, 500, 1000};
+    static final int MAX_BATCH_SIZE = IN_BUCKETS[IN_BUCKETS.length - 1];
+
+    private final EntityManager em;
+
+    public List<OrderQueryDto> findAllWithItem(int offset, int limit, int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        List<OrderQueryDto> orders = em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                " from Order o" +
+                                " join o.member m" +
+                                " join o.delivery d" +
+                                " order by o.id", OrderQueryDto.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (orders.isEmpty()) {
+            return orders;
+        }
+
+        Map<Long, OrderQueryDto> orderById = new HashMap<>();
+        List<Long> orderIds = new ArrayList<>(orders.size());
+        for (OrderQueryDto order : orders) {
+            order.setOrderItems(new ArrayList<>());
+            orderById.put(order.getOrderId(), order);
+            orderIds.add(order.getOrderId());
+        }
+        for (List<Long> chunk : chunk(orderIds, batchSize)) {
+            List<OrderItemQueryDto> orderItems = em.createQuery(
+                            "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                                    " from OrderItem oi" +
+                                    " join oi.item i" +
+                                    " where oi.order.id in :orderIds" +
+                                    " order by oi.id", OrderItemQueryDto.class)
+                    .setParameter("orderIds", pad(chunk))
+                    .getResultList();
+            for (OrderItemQueryDto orderItem : orderItems) {
+                orderById.get(orderItem.getOrderId()).getOrderItems().add(orderItem);
+            }
+        }
+        return orders;
+    }
+
+    static List<List<Long>> chunk(Collection<Long> ids, int size) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>(size);
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() == size) {
+                chunks.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    static List<Long> pad(List<Long> ids) {
+        int bucket = bucketSize(ids.size());
+        List<Long> padded = new ArrayList<>(bucket);
+        padded.addAll(ids);
+        Long last = ids.get(ids.size() - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    static int bucketSize(int size) {
+        for (int bucket : IN_BUCKETS) {
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("too many ids: " + size);
+    }
+}
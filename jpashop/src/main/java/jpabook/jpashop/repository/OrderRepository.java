@@ -4,16 +4,24 @@ import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderRepository {
 
+    static final int MAX_SEARCH_LIMIT = 1000;
+
+    private static final int SEARCH_STATUS = 1;
+    private static final int SEARCH_NAME = 1 << 1;
+    private static final int SEARCH_CURSOR = 1 << 2;
+    //shape(비트 조합) -> JPQL
+    private static final String[] SEARCH_JPQL = searchJpql();
+
     private final EntityManager em;
 
     public void save(Order order) {
@@ -24,47 +32,68 @@ public class OrderRepository {
         return em.find(Order.class, id);
     }
 
+    /**
+     * 주문 검색 (최신 주문 순, 최대 1000건)
+     */
     public List<Order> findAll(OrderSearch orderSearch) {
-        return em.createQuery("select o from Order o join o.member m", Order.class)
-                .getResultList();
+        return search(orderSearch, null, MAX_SEARCH_LIMIT);
     }
 
+    /**
+     * findAll 과 같다, 기존 호출부 호환용
+     */
     public List<Order> findAllByString(OrderSearch orderSearch) {
-        //language=JPAQL
-        String jpql = "select o From Order o join o.member m";
-        boolean isFirstCondition = true;
-
-        //주문 상태 검색
-        if (orderSearch.getOrderStatus() != null) {
-            if (isFirstCondition) {
-                jpql += " where";
-                isFirstCondition = false;
-            } else {
-                jpql += " and";
-            }
-            jpql += " o.status = :status";
-        }
+        return findAll(orderSearch);
+    }
 
-        //회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
-            if (isFirstCondition) {
-                jpql += " where";
-                isFirstCondition = false;
-            } else {
-                jpql += " and";
-            }
-            jpql += " m.name like :name";
+    /**
+     * 주문 검색 페이지, (orderDate, id) 내림차순 키셋 페이징
+     * 다음 페이지는 OrderCursor.after(마지막 주문) 을 넘긴다
+     * 조건 조합은 상태/회원명/커서 여부 8가지뿐이고 JPQL 을 미리 만들어 두어 쿼리 플랜 캐시 항목도 8개로 고정된다
+     */
+    public List<Order> search(OrderSearch orderSearch, OrderCursor after, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
         }
-        TypedQuery<Order> query = em.createQuery(jpql, Order.class) .setMaxResults(1000); //최대 1000건
-        if (orderSearch.getOrderStatus() != null) {
-            query = query.setParameter("status", orderSearch.getOrderStatus());
+        int shape = (orderSearch.hasOrderStatus() ? SEARCH_STATUS : 0)
+                | (orderSearch.hasMemberName() ? SEARCH_NAME : 0)
+                | (after != null ? SEARCH_CURSOR : 0);
+
+        TypedQuery<Order> query = em.createQuery(SEARCH_JPQL[shape], Order.class)
+                .setMaxResults(limit);
+        if ((shape & SEARCH_STATUS) != 0) {
+            query.setParameter("status", orderSearch.getOrderStatus());
         }
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
-            query = query.setParameter("name", orderSearch.getMemberName());
+        if ((shape & SEARCH_NAME) != 0) {
+            query.setParameter("name", orderSearch.getMemberName());
+        }
+        if ((shape & SEARCH_CURSOR) != 0) {
+            query.setParameter("orderDate", after.getOrderDate());
+            query.setParameter("orderId", after.getOrderId());
         }
         return query.getResultList();
     }
 
+    private static String[] searchJpql() {
+        String[] jpql = new String[(SEARCH_STATUS | SEARCH_NAME | SEARCH_CURSOR) + 1];
+        for (int shape = 0; shape < jpql.length; shape++) {
+            List<String> where = new ArrayList<>();
+            if ((shape & SEARCH_STATUS) != 0) {
+                where.add("o.status = :status");
+            }
+            if ((shape & SEARCH_NAME) != 0) {
+                where.add("m.name = :name");
+            }
+            if ((shape & SEARCH_CURSOR) != 0) {
+                where.add("(o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :orderId))");
+            }
+            jpql[shape] = "select o from Order o join fetch o.member m" +
+                    (where.isEmpty() ? "" : " where " + String.join(" and ", where)) +
+                    " order by o.orderDate desc, o.id desc";
+        }
+        return jpql;
+    }
+
     public List<Order> findAllWithMemberDelivery() {
         // LAZY 무시하고 전부 조인해서 가져오는 fetch join(jpql 문법)
         return em.createQuery(
@@ -3,11 +3,30 @@ package jpabook.jpashop.repository;
 import jpabook.jpashop.domain.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.util.StringUtils;
 
+/**
+ * 주문 검색 조건, 주문 상태와 회원 이름(일치) 조합
+ */
 @Getter
 @Setter
 public class OrderSearch {
 
     private String memberName;
     private OrderStatus orderStatus;
+
+    public static OrderSearch of(OrderStatus orderStatus, String memberName) {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(orderStatus);
+        orderSearch.setMemberName(memberName);
+        return orderSearch;
+    }
+
+    public boolean hasOrderStatus() {
+        return orderStatus != null;
+    }
+
+    public boolean hasMemberName() {
+        return StringUtils.hasText(memberName);
+    }
 }
@@ -0,0 +1,75 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+    private final EntityManager em;
+
+    public void save(OrderSummary orderSummary) {
+        em.persist(orderSummary);
+    }
+
+    public OrderSummary findOne(Long orderId) {
+        return em.find(OrderSummary.class, orderId);
+    }
+
+    /**
+     * 주문 목록, order_summary 한 테이블만 읽는다 (최신 주문 순, 최대 1000건)
+     * 조건 조합마다 JPQL 이 하나로 고정되도록 네 가지 중에서 고른다
+     */
+    public List<OrderSummary> findAll(OrderSearch orderSearch) {
+        OrderStatus status = orderSearch.getOrderStatus();
+        boolean hasName = orderSearch.hasMemberName();
+
+        String jpql = "select s from OrderSummary s";
+        if (status != null && hasName) {
+            jpql += " where s.status = :status and s.memberName = :name";
+        } else if (status != null) {
+            jpql += " where s.status = :status";
+        } else if (hasName) {
+            jpql += " where s.memberName = :name";
+        }
+        jpql += " order by s.orderId desc";
+
+        TypedQuery<OrderSummary> query = em.createQuery(jpql, OrderSummary.class)
+                .setMaxResults(1000);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (hasName) {
+            query.setParameter("name", orderSearch.getMemberName());
+        }
+        return query.getResultList();
+    }
+
+    public void updateStatus(Long orderId, OrderStatus status) {
+        OrderSummary orderSummary = findOne(orderId);
+        //아직 만들지 않은 요약은 재구성 작업이 채운다
+        if (orderSummary != null) {
+            orderSummary.changeStatus(status);
+        }
+    }
+
+    public int updateMemberName(Long memberId, String memberName) {
+        return em.createQuery("update OrderSummary s set s.memberName = :name where s.memberId = :memberId")
+                .setParameter("name", memberName)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+
+    public int deleteAll(List<Long> orderIds) {
+        return em.createQuery("delete from OrderSummary s where s.orderId in :orderIds")
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+}
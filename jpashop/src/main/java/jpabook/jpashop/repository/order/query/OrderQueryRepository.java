@@ -1,24 +1,72 @@
 package jpabook.jpashop.repository.order.query;
 
-import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Repository
-@RequiredArgsConstructor
 public class OrderQueryRepository {
 
+    //주문 청크 크기, 청크마다 OrderItem IN 쿼리 한 번
+    static final int CHUNK_SIZE = 500;
+    //스트리밍 조회 시 JDBC 드라이버가 한 번에 가져오는 행 수
+    static final int FETCH_SIZE = 1000;
+
     private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+
+    @Autowired
+    public OrderQueryRepository(EntityManager em, EntityManagerFactory emf) {
+        this(em, emf, CHUNK_SIZE);
+    }
+
+    OrderQueryRepository(EntityManager em, EntityManagerFactory emf, int chunkSize) {
+        this.em = em;
+        this.emf = emf;
+        this.executor = createExecutor();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 청크 조회용 스레드 풀, 작업마다 커넥션을 하나씩 쓰므로 커넥션 풀(기본 10)보다 작게 유지
+     * 대기열이 차면 호출한 스레드가 직접 실행한다
+     * 빈으로 등록하면 스프링 부트가 기본 applicationTaskExecutor 를 만들지 않아서 리포지토리 안에 둔다
+     */
+    private static ThreadPoolExecutor createExecutor() {
+        return new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                new CustomizableThreadFactory("order-query-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
 
     public List<OrderQueryDto> findOrderQueryDtos() {
         List<OrderQueryDto> result = findOrders();
 
         result.forEach(o -> {
             List<OrderItemQueryDto> orderItems = findOrderItems(o.getOrderId());
+            o.setOrderItems(orderItems);
         });
         return result;
     }
@@ -38,31 +86,92 @@ public class OrderQueryRepository {
                         "select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
                                 " from Order o" +
                                 " join o.member m" +
-                                " join o.delivery d", OrderQueryDto.class)
+                                " join o.delivery d" +
+                                " order by o.id", OrderQueryDto.class)
                 .getResultList();
     }
 
+    /**
+     * 주문을 id 순으로 chunkSize 건씩 읽고(키셋), 청크마다 OrderItem 조회를 executor 에서 동시에 실행한다.
+     * 청크 조회는 각자 EntityManager(커넥션)를 사용한다. 중간 결과는 청크 크기만큼만 유지된다.
+     */
     public List<OrderQueryDto> findAllByDto_optimization() {
-        List<OrderQueryDto> result = findOrders();
+        List<OrderQueryDto> result = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-        List<Long> orderIds = result.stream()
-                .map(o -> o.getOrderId())
-                .collect(Collectors.toList());
+        long lastOrderId = 0L;
+        while (true) {
+            List<OrderQueryDto> chunk = findOrders(lastOrderId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            result.addAll(chunk);
+            futures.add(CompletableFuture.runAsync(() -> setOrderItems(chunk), executor));
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            lastOrderId = chunk.get(chunk.size() - 1).getOrderId();
+        }
 
-        List<OrderItemQueryDto> orderItems = em.createQuery(
-                        "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
-                                " from OrderItem oi" +
-                                " join oi.item i" +
-                                " where oi.order.id in :orderIds", OrderItemQueryDto.class)
-                .setParameter("orderIds", orderIds)
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    private List<OrderQueryDto> findOrders(long lastOrderId, int limit) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                                " from Order o" +
+                                " join o.member m" +
+                                " join o.delivery d" +
+                                " where o.id > :lastOrderId" +
+                                " order by o.id", OrderQueryDto.class)
+                .setParameter("lastOrderId", lastOrderId)
+                .setMaxResults(limit)
                 .getResultList();
+    }
 
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
-                .collect(Collectors.groupingBy(orderItemQueryDto -> orderItemQueryDto.getOrderId()));
+    /**
+     * 청크는 order id 오름차순이다. 정렬된 long[] 을 이진 탐색해서 주문 위치를 찾는다 (HashMap<Long, List> 대신).
+     */
+    private void setOrderItems(List<OrderQueryDto> chunk) {
+        long[] orderIds = new long[chunk.size()];
+        List<Long> params = new ArrayList<>(chunk.size());
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = chunk.get(i).getOrderId();
+            params.add(orderIds[i]);
+        }
 
-        result.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
+        List<OrderItemQueryDto> orderItems;
+        EntityManager chunkEm = emf.createEntityManager();
+        try {
+            orderItems = chunkEm.createQuery(
+                            "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                                    " from OrderItem oi" +
+                                    " join oi.item i" +
+                                    " where oi.order.id in :orderIds", OrderItemQueryDto.class)
+                    .setParameter("orderIds", params)
+                    .getResultList();
+        } finally {
+            chunkEm.close();
+        }
 
-        return result;
+        List<List<OrderItemQueryDto>> itemsByOrder = new ArrayList<>(orderIds.length);
+        for (int i = 0; i < orderIds.length; i++) {
+            itemsByOrder.add(new ArrayList<>());
+        }
+        for (OrderItemQueryDto orderItem : orderItems) {
+            itemsByOrder.get(Arrays.binarySearch(orderIds, orderItem.getOrderId())).add(orderItem);
+        }
+        for (int i = 0; i < orderIds.length; i++) {
+            chunk.get(i).setOrderItems(itemsByOrder.get(i));
+        }
     }
 
     public List<OrderFlatDto> findAllByDto_flat() {
@@ -75,4 +184,39 @@ public class OrderQueryRepository {
                         " join oi.item i", OrderFlatDto.class)
                 .getResultList();
     }
+
+    /**
+     * 주문 x 주문상품 flat 결과를 커서로 한 행씩 읽으면서, 연속된 같은 주문 행을 묶어 OrderQueryDto 로 넘긴다.
+     * StatelessSession 이라 영속성 컨텍스트가 없고, 메모리에는 주문 하나만 유지된다.
+     */
+    public void streamAllByDto(Consumer<OrderQueryDto> consumer) {
+        try (StatelessSession session = emf.unwrap(SessionFactory.class).openStatelessSession();
+             ScrollableResults rows = session.createQuery(
+                             "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                                     " from Order o" +
+                                     " join o.member m" +
+                                     " join o.delivery d" +
+                                     " join o.orderItems oi" +
+                                     " join oi.item i" +
+                                     " order by o.id", OrderFlatDto.class)
+                     .setFetchSize(FETCH_SIZE)
+                     .setReadOnly(true)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            OrderQueryDto current = null;
+            while (rows.next()) {
+                OrderFlatDto row = (OrderFlatDto) rows.get(0);
+                if (current == null || !current.getOrderId().equals(row.getOrderId())) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = new OrderQueryDto(row.getOrderId(), row.getName(), row.getOrderDate(), row.getOrderStatus(), row.getAddress());
+                    current.setOrderItems(new ArrayList<>());
+                }
+                current.getOrderItems().add(new OrderItemQueryDto(row.getOrderId(), row.getItemName(), row.getOrderPrice(), row.getCount()));
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
 }
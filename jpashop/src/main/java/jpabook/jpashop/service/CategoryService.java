@@ -0,0 +1,82 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+
+    //변경이 커밋되면 비우고, 다음 조회 때 다시 만든다
+    private volatile CategoryTree tree;
+    //만드는 도중에 무효화되면 만든 스냅샷을 버린다
+    private long generation;
+
+    @Transactional
+    public Long saveCategory(Long parentId, String name) {
+        Category category = new Category();
+        category.setName(name);
+        if (parentId != null) {
+            Category parent = categoryRepository.findOne(parentId);
+            if (parent == null) {
+                throw new IllegalArgumentException("no category: " + parentId);
+            }
+            parent.addChildCategory(category);
+        }
+        categoryRepository.save(category);
+        invalidateTreeAfterCommit();
+        return category.getId();
+    }
+
+    /**
+     * 하위 트리 전체의 상품, 카테고리를 따라 내려가지 않고 path 로 한 번에 조회
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        Category root = categoryRepository.findOne(categoryId);
+        if (root == null) {
+            throw new IllegalArgumentException("no category: " + categoryId);
+        }
+        return categoryRepository.findItemsInSubtree(root);
+    }
+
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        if (current != null) {
+            return current;
+        }
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        current = CategoryTree.of(categoryRepository.findAllIdAndParentId());
+        synchronized (this) {
+            if (generation == startGeneration) {
+                tree = current;
+            }
+        }
+        return current;
+    }
+
+    private void invalidateTreeAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (CategoryService.this) {
+                    generation++;
+                    tree = null;
+                }
+            }
+        });
+    }
+}
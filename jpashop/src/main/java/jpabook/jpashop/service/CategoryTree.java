@@ -0,0 +1,139 @@
+package jpabook.jpashop.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카테고리 트리 불변 스냅샷
+ * 전위 순회 번호(pre)와 하위 트리 크기(size)를 저장해서
+ * a 가 d 의 조상인지 = pre[a] <= pre[d] < pre[a] + size[a] 로 O(1) 판단한다
+ * 하위 카테고리 id 는 전위 순회 배열의 연속 구간이다
+ */
+public final class CategoryTree {
+
+    private final Map<Long, Integer> indexOf;
+    private final long[] ids;
+    private final int[] parent;
+    private final int[] pre;
+    private final int[] size;
+    //전위 순회 순서의 id
+    private final long[] preorder;
+
+    private CategoryTree(Map<Long, Integer> indexOf, long[] ids, int[] parent, int[] pre, int[] size, long[] preorder) {
+        this.indexOf = indexOf;
+        this.ids = ids;
+        this.parent = parent;
+        this.pre = pre;
+        this.size = size;
+        this.preorder = preorder;
+    }
+
+    /**
+     * @param rows {category id, parent id(루트면 null)}
+     */
+    public static CategoryTree of(List<Object[]> rows) {
+        int n = rows.size();
+        Map<Long, Integer> indexOf = new HashMap<>(n * 2);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = (Long) rows.get(i)[0];
+            indexOf.put(ids[i], i);
+        }
+
+        int[] parent = new int[n];
+        List<List<Integer>> children = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            children.add(new ArrayList<>());
+        }
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Long parentId = (Long) rows.get(i)[1];
+            Integer p = parentId == null ? null : indexOf.get(parentId);
+            if (p == null) {
+                parent[i] = -1;
+                roots.add(i);
+            } else {
+                parent[i] = p;
+                children.get(p).add(i);
+            }
+        }
+
+        int[] pre = new int[n];
+        int[] size = new int[n];
+        long[] preorder = new long[n];
+        Arrays.fill(pre, -1);
+        int counter = 0;
+        //재귀 대신 명시적 스택 (깊은 트리에서 StackOverflowError 방지)
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        for (int root : roots) {
+            int top = 0;
+            stack[top] = root;
+            pre[root] = counter;
+            preorder[counter++] = ids[root];
+            while (top >= 0) {
+                int node = stack[top];
+                List<Integer> c = children.get(node);
+                if (next[node] < c.size()) {
+                    int childIndex = c.get(next[node]++);
+                    pre[childIndex] = counter;
+                    preorder[counter++] = ids[childIndex];
+                    stack[++top] = childIndex;
+                } else {
+                    size[node] = counter - pre[node];
+                    top--;
+                }
+            }
+        }
+        if (counter != n) {
+            //부모를 따라가면 순환하는 데이터, 루트에서 닿지 않는다
+            throw new IllegalStateException("category tree has a cycle");
+        }
+        return new CategoryTree(Collections.unmodifiableMap(indexOf), ids, parent, pre, size, preorder);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(Long categoryId) {
+        return indexOf.containsKey(categoryId);
+    }
+
+    /**
+     * ancestorId 가 descendantId 자신이거나 조상이면 true
+     */
+    public boolean isAncestorOrSelf(Long ancestorId, Long descendantId) {
+        Integer a = indexOf.get(ancestorId);
+        Integer d = indexOf.get(descendantId);
+        if (a == null || d == null) {
+            return false;
+        }
+        return pre[a] <= pre[d] && pre[d] < pre[a] + size[a];
+    }
+
+    public Long parentId(Long categoryId) {
+        int p = parent[index(categoryId)];
+        return p < 0 ? null : ids[p];
+    }
+
+    /**
+     * 자신을 포함한 하위 카테고리 id (전위 순회 순서)
+     */
+    public long[] subtreeIds(Long categoryId) {
+        int i = index(categoryId);
+        return Arrays.copyOfRange(preorder, pre[i], pre[i] + size[i]);
+    }
+
+    private int index(Long categoryId) {
+        Integer i = indexOf.get(categoryId);
+        if (i == null) {
+            throw new IllegalArgumentException("no category: " + categoryId);
+        }
+        return i;
+    }
+}
@@ -2,6 +2,7 @@ package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderSummaryRepository;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,7 @@ public class MemberService {
 
     //@Autowired
     private final MemberRepository memberRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
 
     // 생성자 주입, @RequiredArgsConstructor를 통해 final 붙은 필드 생성자 자동 생성
     /*public MemberService(MemberRepository memberRepository) {
@@ -61,5 +63,6 @@ public class MemberService {
     public void update(Long id, String name) {
         Member member = memberRepository.findOne(id);
         member.setName(name);
+        orderSummaryRepository.updateMemberName(id, name);
     }
 }
@@ -0,0 +1,73 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.service.stock.StockStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 주문 재시도, 트랜잭션 밖에서 OrderService.order 를 호출한다
+ * 낙관적 락 충돌(@Version)은 새 트랜잭션으로 다시 주문한다. 재고 부족은 재시도하지 않는다
+ */
+@Service
+public class OrderFacade {
+
+    private final OrderService orderService;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OrderFacade(OrderService orderService,
+                       @Value("${jpashop.stock.max-attempts:10}") int maxAttempts,
+                       @Value("${jpashop.stock.backoff-millis:5}") long backoffMillis) {
+        this.orderService = orderService;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public Long order(Long memberId, Long itemId, int count) {
+        return retry(() -> orderService.order(memberId, itemId, count));
+    }
+
+    public Long order(Long memberId, Long itemId, int count, StockStrategy strategy) {
+        return retry(() -> orderService.order(memberId, itemId, count, strategy));
+    }
+
+    public Long checkout(Long memberId, Map<Long, Integer> itemCounts) {
+        return retry(() -> orderService.checkout(memberId, itemCounts));
+    }
+
+    public Long checkout(Long memberId, Map<Long, Integer> itemCounts, StockStrategy strategy) {
+        return retry(() -> orderService.checkout(memberId, itemCounts, strategy));
+    }
+
+    private Long retry(Supplier<Long> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleep(attempt);
+            }
+        }
+    }
+
+    //충돌한 스레드들이 같은 순간에 다시 부딪히지 않도록 지터를 준다
+    private void sleep(int attempt) {
+        long bound = backoffMillis * Math.min(attempt, 10);
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while retrying order", e);
+        }
+    }
+}
@@ -5,46 +5,132 @@ import jpabook.jpashop.domain.Item.Item;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderSummary;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import jpabook.jpashop.service.stock.StockService;
+import jpabook.jpashop.service.stock.StockStrategy;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_JDBC_BATCH_SIZE = 100;
+
+    private final EntityManager em;
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final StockService stockService;
 
     /**
      * 주문
      */
     @Transactional
     public Long order(Long memberId, Long itemId, int count) {
+        return order(memberId, itemId, count, stockService.getDefaultStrategy());
+    }
+
+    /**
+     * 주문, 재고 차감 방식 지정
+     * OPTIMISTIC 은 커밋 시 충돌할 수 있다. 재시도는 OrderFacade 에서 한다
+     */
+    @Transactional
+    public Long order(Long memberId, Long itemId, int count, StockStrategy strategy) {
 
         // 엔티티 조회
         Member member = memberRepository.findOne(memberId);
-        Item item = itemRepository.findOne(itemId);
+
+        // 재고 차감
+        Item item = stockService.reserve(itemId, count, strategy);
 
         // 배송정보 생성
         Delivery delivery = new Delivery();
         delivery.setAddress(member.getAddress());
 
         // 주문상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = OrderItem.createReservedOrderItem(item, item.getPrice(), count);
 
         // 주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
 
         orderRepository.save(order);
+        orderSummaryRepository.save(OrderSummary.createFrom(order));
+
+        return order.getId();
+    }
+
+    /**
+     * 장바구니 주문, itemCounts 는 상품 id -> 수량
+     * 상품은 IN 쿼리 한 번으로 id 오름차순 조회, 주문상품 INSERT 는 JDBC 배치로 보낸다
+     */
+    @Transactional
+    public Long checkout(Long memberId, Map<Long, Integer> itemCounts) {
+        return checkout(memberId, itemCounts, stockService.getDefaultStrategy());
+    }
+
+    @Transactional
+    public Long checkout(Long memberId, Map<Long, Integer> itemCounts, StockStrategy strategy) {
+        if (itemCounts.isEmpty()) {
+            throw new IllegalArgumentException("empty cart");
+        }
+        //이 메서드 안에서만 배치 INSERT, 세션은 open-in-view 로 요청 끝까지 살아 있으므로 이전 값으로 되돌린다
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.min(itemCounts.size(), MAX_JDBC_BATCH_SIZE));
+        try {
+            Member member = memberRepository.findOne(memberId);
+            Map<Long, Item> items = stockService.reserveAll(itemCounts, strategy);
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            OrderItem[] orderItems = items.values().stream()
+                    .map(item -> OrderItem.createReservedOrderItem(item, item.getPrice(), itemCounts.get(item.getId())))
+                    .toArray(OrderItem[]::new);
+            Order order = Order.createOrder(member, delivery, orderItems);
+
+            orderRepository.save(order);
+            orderSummaryRepository.save(OrderSummary.createFrom(order));
+
+            //INSERT 는 flush 때 나가므로 배치 크기를 되돌리기 전에 flush
+            em.flush();
+            return order.getId();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * 재고를 이미 확보한 주문 (FlashSaleService), 상품 재고는 건드리지 않는다
+     */
+    @Transactional
+    public Long orderReserved(Long memberId, Long itemId, int count) {
+        Member member = memberRepository.findOne(memberId);
+        Item item = itemRepository.findOne(itemId);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+
+        OrderItem orderItem = OrderItem.createReservedOrderItem(item, item.getPrice(), count);
+        Order order = Order.createOrder(member, delivery, orderItem);
+
+        orderRepository.save(order);
+        orderSummaryRepository.save(OrderSummary.createFrom(order));
 
         return order.getId();
     }
@@ -56,9 +142,21 @@ public class OrderService {
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findOne(orderId);
         order.cancel();
+        orderSummaryRepository.updateStatus(orderId, order.getStatus());
     }
 
     public List<Order> findOrders(OrderSearch orderSearch) {
         return orderRepository.findAll(orderSearch);
     }
+
+    public List<Order> searchOrders(OrderSearch orderSearch, OrderCursor after, int limit) {
+        return orderRepository.search(orderSearch, after, limit);
+    }
+
+    /**
+     * 주문 목록 (order_summary), 주문상품 컬렉션을 초기화하지 않는다
+     */
+    public List<OrderSummary> findOrderSummaries(OrderSearch orderSearch) {
+        return orderSummaryRepository.findAll(orderSearch);
+    }
 }
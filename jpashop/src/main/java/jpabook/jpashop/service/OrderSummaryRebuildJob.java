@@ -0,0 +1,129 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * order_summary 재구성, 주문을 id 순으로 chunkSize 건씩 읽어(키셋) 청크마다 트랜잭션 하나로 다시 쓴다
+ * 청크마다 집계 쿼리 1 + 대표상품 쿼리 1 + 기존 요약 삭제 1 + INSERT
+ * jpashop.order-summary.rebuild-on-startup=true 면 애플리케이션 시작 시 실행한다
+ */
+@Slf4j
+@Component
+public class OrderSummaryRebuildJob implements ApplicationRunner {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final boolean rebuildOnStartup;
+
+    public OrderSummaryRebuildJob(EntityManager em, TransactionTemplate tx,
+                                  OrderSummaryRepository orderSummaryRepository,
+                                  @Value("${jpashop.order-summary.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.em = em;
+        this.tx = tx;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return 다시 만든 요약 건수
+     */
+    public long rebuild() {
+        return rebuild(CHUNK_SIZE);
+    }
+
+    long rebuild(int chunkSize) {
+        long total = 0;
+        long lastId = 0;
+        while (true) {
+            long from = lastId;
+            List<OrderSummary> chunk = tx.execute(status -> rebuildChunk(from, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            total += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getOrderId();
+        }
+        log.info("order_summary rebuilt: {}", total);
+        return total;
+    }
+
+    private List<OrderSummary> rebuildChunk(long lastId, int chunkSize) {
+        List<Object[]> rows = em.createQuery(
+                        "select o.id, m.id, m.name, o.orderDate, o.status," +
+                                " coalesce(sum(oi.orderPrice * oi.count), 0), coalesce(sum(oi.count), 0), min(oi.id)" +
+                                " from Order o" +
+                                " join o.member m" +
+                                " left join o.orderItems oi" +
+                                " where o.id > :lastId" +
+                                " group by o.id, m.id, m.name, o.orderDate, o.status" +
+                                " order by o.id", Object[].class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(chunkSize)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> orderIds = new ArrayList<>(rows.size());
+        List<Long> mainItemIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            orderIds.add((Long) row[0]);
+            if (row[7] != null) {
+                mainItemIds.add((Long) row[7]);
+            }
+        }
+        Map<Long, OrderItem> mainItems = new HashMap<>();
+        if (!mainItemIds.isEmpty()) {
+            em.createQuery("select oi from OrderItem oi join fetch oi.item i where oi.id in :ids", OrderItem.class)
+                    .setParameter("ids", mainItemIds)
+                    .getResultList()
+                    .forEach(oi -> mainItems.put(oi.getId(), oi));
+        }
+
+        orderSummaryRepository.deleteAll(orderIds);
+        //벌크 삭제는 영속성 컨텍스트에 반영되지 않으므로 같은 id 로 다시 persist 하기 전에 비운다
+        em.clear();
+        List<OrderSummary> summaries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            OrderItem main = row[7] == null ? null : mainItems.get((Long) row[7]);
+            OrderSummary summary = new OrderSummary((Long) row[0], (Long) row[1], (String) row[2],
+                    (LocalDateTime) row[3], (OrderStatus) row[4],
+                    ((Number) row[5]).intValue(), ((Number) row[6]).intValue(),
+                    main == null ? null : main.getItem().getName(),
+                    main == null ? 0 : main.getOrderPrice(),
+                    main == null ? 0 : main.getCount());
+            orderSummaryRepository.save(summary);
+            summaries.add(summary);
+        }
+        //다음 청크에 영속성 컨텍스트를 넘기지 않는다
+        em.flush();
+        em.clear();
+        return summaries;
+    }
+}
@@ -0,0 +1,100 @@
+package jpabook.jpashop.service.stock;
+
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 한정 판매, 판매 수량을 DB 재고에서 한 번에 떼어 와 메모리 카운터(ShardedStockCounter)에서 나눠 준다
+ * 주문마다 item 행을 갱신하지 않으므로 같은 상품 주문끼리 DB 에서 경합하지 않는다
+ *
+ * 카운터는 이 서버 메모리에만 있다. 판매 중 서버가 내려가면 남은 수량은 close 로 돌아가지 않는다
+ * 판매 주문을 취소하면 재고는 DB(Item.addStock)로 돌아간다
+ * close 로 카운터를 비운 뒤 실패한 주문이 돌려주는 수량도 DB 재고로 돌아간다
+ */
+@Service
+public class FlashSaleService {
+
+    private final Map<Long, ShardedStockCounter> counters = new ConcurrentHashMap<>();
+
+    private final OrderService orderService;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate tx;
+    private final int shards;
+
+    public FlashSaleService(OrderService orderService, ItemRepository itemRepository, TransactionTemplate tx,
+                            @Value("${jpashop.stock.flash-sale-shards:16}") int shards) {
+        this.orderService = orderService;
+        this.itemRepository = itemRepository;
+        this.tx = tx;
+        this.shards = shards;
+    }
+
+    /**
+     * DB 재고에서 quantity 만큼 차감하고 판매를 연다
+     */
+    public void open(Long itemId, int quantity) {
+        //음수면 removeStock 이 재고를 늘린다
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        if (counters.containsKey(itemId)) {
+            throw new IllegalStateException("flash sale already open: " + itemId);
+        }
+        tx.executeWithoutResult(status -> {
+            if (itemRepository.removeStock(itemId, quantity) == 0) {
+                throw new NotEnoughStockException("need more stock");
+            }
+        });
+        //커밋된 뒤에 연다, 동시에 연 쪽이 있으면 차감한 수량을 되돌린다
+        ShardedStockCounter counter = new ShardedStockCounter(quantity, shards,
+                units -> tx.executeWithoutResult(status -> itemRepository.addStock(itemId, (int) units)));
+        if (counters.putIfAbsent(itemId, counter) != null) {
+            tx.executeWithoutResult(status -> itemRepository.addStock(itemId, quantity));
+            throw new IllegalStateException("flash sale already open: " + itemId);
+        }
+    }
+
+    public Long order(Long memberId, Long itemId, int count) {
+        ShardedStockCounter counter = counters.get(itemId);
+        if (counter == null) {
+            throw new IllegalStateException("no flash sale: " + itemId);
+        }
+        if (!counter.tryAcquire(count)) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        try {
+            return orderService.orderReserved(memberId, itemId, count);
+        } catch (RuntimeException e) {
+            //그 사이 close 되었으면 카운터 대신 DB 재고로 돌아간다
+            counter.release(count);
+            throw e;
+        }
+    }
+
+    public long available(Long itemId) {
+        ShardedStockCounter counter = counters.get(itemId);
+        return counter == null ? 0 : counter.available();
+    }
+
+    /**
+     * 판매를 닫고 남은 수량을 DB 재고로 돌려준다
+     */
+    public long close(Long itemId) {
+        ShardedStockCounter counter = counters.remove(itemId);
+        if (counter == null) {
+            return 0;
+        }
+        long remaining = counter.drain();
+        if (remaining > 0) {
+            tx.executeWithoutResult(status -> itemRepository.addStock(itemId, (int) remaining));
+        }
+        return remaining;
+    }
+}
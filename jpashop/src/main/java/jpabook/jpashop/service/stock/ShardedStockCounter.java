@@ -0,0 +1,153 @@
+package jpabook.jpashop.service.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * 메모리 재고 카운터, 재고를 여러 칸(shard)에 나눠 스레드별로 다른 칸에서 CAS 로 차감한다
+ * 칸마다 캐시 라인(64바이트) 하나를 쓰도록 long 8개 간격으로 배치한다
+ *
+ * 자기 칸이 모자라면 다른 칸을 차례로 보고, 한 칸으로 부족하면 여러 칸에서 모은다.
+ * 모으다 실패하면 가져온 만큼 되돌리므로, 그 사이 다른 스레드는 잠깐 재고 부족을 볼 수 있다 (초과 판매는 없다)
+ *
+ * drain 한 칸은 CLOSED 로 막아서 이후 차감은 실패하고, 되돌리는 수량은 칸 대신 afterDrain 으로 넘긴다
+ */
+public class ShardedStockCounter {
+
+    private static final int PADDING = 8;
+    //drain 된 칸, 음수라 차감 조건(current >= count)을 항상 통과하지 못한다
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final LongConsumer afterDrain;
+
+    /**
+     * drain 이후 돌려받는 수량은 거절한다 (IllegalStateException)
+     */
+    public ShardedStockCounter(long quantity, int shards) {
+        this(quantity, shards, units -> {
+            throw new IllegalStateException("counter is drained, units=" + units);
+        });
+    }
+
+    /**
+     * @param afterDrain drain 이후 release 등으로 돌아온 수량을 받는다, 호출한 스레드에서 실행된다
+     */
+    public ShardedStockCounter(long quantity, int shards, LongConsumer afterDrain) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must not be negative: " + quantity);
+        }
+        if (shards < 1 || Integer.bitCount(shards) != 1) {
+            throw new IllegalArgumentException("shards must be a power of two: " + shards);
+        }
+        this.cells = new AtomicLongArray(shards * PADDING);
+        this.mask = shards - 1;
+        this.afterDrain = afterDrain;
+        long share = quantity / shards;
+        for (int i = 0; i < shards; i++) {
+            cells.set(i * PADDING, share);
+        }
+        cells.addAndGet(0, quantity - share * shards);
+    }
+
+    public boolean tryAcquire(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        int home = home();
+        for (int i = 0; i <= mask; i++) {
+            if (tryTake((home + i) & mask, count)) {
+                return true;
+            }
+        }
+        return gather(home, count);
+    }
+
+    public void release(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        giveBack(home(), count);
+    }
+
+    /**
+     * 남은 재고 합계, 동시에 차감 중이면 근사값
+     */
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += Math.max(0, cells.get(i * PADDING));
+        }
+        return sum;
+    }
+
+    /**
+     * 남은 재고를 모두 꺼내고 칸을 닫는다 (판매 종료), 이후 차감은 실패한다
+     */
+    public long drain() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += Math.max(0, cells.getAndSet(i * PADDING, CLOSED));
+        }
+        return sum;
+    }
+
+    private boolean tryTake(int shard, int count) {
+        int index = shard * PADDING;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < count) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - count));
+        return true;
+    }
+
+    private boolean gather(int home, int count) {
+        long need = count;
+        for (int i = 0; i <= mask && need > 0; i++) {
+            int index = ((home + i) & mask) * PADDING;
+            long current;
+            long take;
+            do {
+                current = cells.get(index);
+                take = Math.max(0, Math.min(current, need));
+            } while (take > 0 && !cells.compareAndSet(index, current, current - take));
+            need -= take;
+        }
+        if (need == 0) {
+            return true;
+        }
+        if (count - need > 0) {
+            giveBack(home, count - need);
+        }
+        return false;
+    }
+
+    /**
+     * 닫히지 않은 칸에 되돌린다, 모두 닫혔으면 (drain 이후) afterDrain 으로 넘긴다
+     * 아직 닫히지 않은 칸에 넣은 수량은 drain 이 가져가므로 어느 쪽이든 사라지지 않는다
+     */
+    private void giveBack(int home, long units) {
+        for (int i = 0; i <= mask; i++) {
+            int index = ((home + i) & mask) * PADDING;
+            long current;
+            do {
+                current = cells.get(index);
+            } while (current != CLOSED && !cells.compareAndSet(index, current, current + units));
+            if (current != CLOSED) {
+                return;
+            }
+        }
+        afterDrain.accept(units);
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        //연속된 스레드 id 가 칸에 고르게 퍼지도록 섞는다
+        int hash = (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+        return hash & mask;
+    }
+}
@@ -0,0 +1,148 @@
+package jpabook.jpashop.service.stock;
+
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 재고 차감, 호출한 트랜잭션(주문) 안에서 실행된다
+ * 차감된 Item 을 돌려주므로 주문상품은 OrderItem.createReservedOrderItem 으로 만든다
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockService {
+
+    private final ItemRepository itemRepository;
+    private final EntityManager em;
+    private final StockStrategy defaultStrategy;
+
+    public StockService(ItemRepository itemRepository, EntityManager em,
+                        @Value("${jpashop.stock.strategy:OPTIMISTIC}") StockStrategy defaultStrategy) {
+        this.itemRepository = itemRepository;
+        this.em = em;
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    public StockStrategy getDefaultStrategy() {
+        return defaultStrategy;
+    }
+
+    public Item reserve(Long itemId, int count) {
+        return reserve(itemId, count, defaultStrategy);
+    }
+
+    public Item reserve(Long itemId, int count, StockStrategy strategy) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        switch (strategy) {
+            case OPTIMISTIC:
+                return removeStock(itemRepository.findOne(itemId), itemId, count);
+            case PESSIMISTIC:
+                return removeStock(itemRepository.findOneForUpdate(itemId), itemId, count);
+            case CONDITIONAL_UPDATE:
+                return removeStockByUpdate(itemId, count);
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    /**
+     * 여러 상품 재고 차감, itemCounts 는 상품 id -> 수량
+     * 조회, 잠금, 갱신을 항상 id 오름차순으로 해서 주문끼리 잠금 순서가 엇갈려 교착 상태가 되지 않게 한다
+     * 하나라도 부족하면 예외, 트랜잭션이 롤백되므로 먼저 차감한 상품도 되돌아간다
+     *
+     * @return 상품 id 오름차순 Item
+     */
+    public Map<Long, Item> reserveAll(Map<Long, Integer> itemCounts, StockStrategy strategy) {
+        SortedMap<Long, Integer> sorted = new TreeMap<>(itemCounts);
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("count must be positive: " + entry);
+            }
+        }
+        List<Long> ids = new ArrayList<>(sorted.keySet());
+
+        Map<Long, Item> items;
+        switch (strategy) {
+            case OPTIMISTIC:
+                items = toMap(ids, itemRepository.findAllById(ids, LockModeType.NONE));
+                items.forEach((id, item) -> item.removeStock(sorted.get(id)));
+                return items;
+            case PESSIMISTIC:
+                items = toMap(ids, itemRepository.findAllById(ids, LockModeType.PESSIMISTIC_WRITE));
+                items.forEach((id, item) -> item.removeStock(sorted.get(id)));
+                return items;
+            case CONDITIONAL_UPDATE:
+                return removeStockByUpdate(ids, sorted);
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    private Map<Long, Item> removeStockByUpdate(List<Long> ids, Map<Long, Integer> itemCounts) {
+        List<Item> loaded = new ArrayList<>();
+        for (Long id : ids) {
+            Item item = em.getReference(Item.class, id);
+            if (Hibernate.isInitialized(item)) {
+                loaded.add(item);
+            }
+        }
+        for (Long id : ids) {
+            if (itemRepository.removeStock(id, itemCounts.get(id)) == 0) {
+                throw new NotEnoughStockException("need more stock");
+            }
+        }
+        loaded.forEach(em::refresh);
+        return toMap(ids, itemRepository.findAllById(ids, LockModeType.NONE));
+    }
+
+    private static Map<Long, Item> toMap(List<Long> ids, List<Item> items) {
+        Map<Long, Item> result = new LinkedHashMap<>();
+        for (Item item : items) {
+            result.put(item.getId(), item);
+        }
+        if (result.size() != ids.size()) {
+            List<Long> missing = new ArrayList<>(ids);
+            missing.removeAll(result.keySet());
+            throw new IllegalArgumentException("no item: " + missing);
+        }
+        return result;
+    }
+
+    private Item removeStock(Item item, Long itemId, int count) {
+        if (item == null) {
+            throw new IllegalArgumentException("no item: " + itemId);
+        }
+        item.removeStock(count);
+        return item;
+    }
+
+    private Item removeStockByUpdate(Long itemId, int count) {
+        //영속성 컨텍스트에 이미 있으면 초기화된 엔티티, 없으면 SQL 없이 프록시가 돌아온다
+        Item item = em.getReference(Item.class, itemId);
+        boolean loaded = Hibernate.isInitialized(item);
+        if (itemRepository.removeStock(itemId, count) == 0) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        //벌크 UPDATE 는 영속성 컨텍스트를 거치지 않으므로 미리 읽은 엔티티만 다시 읽는다
+        if (loaded) {
+            em.refresh(item);
+        }
+        return item;
+    }
+}
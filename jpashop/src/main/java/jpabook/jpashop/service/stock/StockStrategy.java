@@ -0,0 +1,26 @@
+package jpabook.jpashop.service.stock;
+
+/**
+ * 주문 시 재고 차감 방식
+ */
+public enum StockStrategy {
+
+    /**
+     * 조회 후 엔티티에서 차감, 커밋 시 @Version 으로 충돌 감지 (충돌하면 OrderFacade 가 재시도)
+     */
+    OPTIMISTIC,
+
+    /**
+     * select ... for update 로 행을 잠그고 차감
+     */
+    PESSIMISTIC,
+
+    /**
+     * update item set stock_quantity = stock_quantity - ? where stock_quantity >= ? 한 번으로 차감
+     * <p>
+     * 벌크 JPQL 이라 Hibernate 는 어떤 행이 바뀌었는지 모른다. 주문마다 2차 캐시 item 영역 전체와
+     * item 테이블을 쓰는 쿼리 캐시가 비워지므로 상품 캐시(@Cache(region = "item"))와 함께 쓰면 캐시가 거의 맞지 않는다.
+     * 상품 조회가 많은 곳에서는 OPTIMISTIC 이나 PESSIMISTIC 을 쓴다 (FlashSaleService 의 open/close 도 같은 벌크 UPDATE 지만 판매당 한 번이다)
+     */
+    CONDITIONAL_UPDATE
+}
@@ -1,13 +1,27 @@
 package jpabook.jpashop;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class JpashopApplicationTests {
 
+	@Autowired
+	ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void 기본_비동기_실행기_유지() {
+		//다른 ThreadPoolTaskExecutor 빈이 있으면 부트가 만들지 않고 MVC 비동기가 SimpleAsyncTaskExecutor 로 떨어진다
+		assertThat(context.getBean("applicationTaskExecutor")).isInstanceOf(ThreadPoolTaskExecutor.class);
+	}
+
 }
@@ -0,0 +1,93 @@
+package jpabook.jpashop;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * write 프로필에서 INSERT 가 JDBC 배치로 나가는지, 회원/상품을 다시 읽지 않는지 p6spy 이벤트로 확인
+ */
+@SpringBootTest
+@ActiveProfiles("write")
+@Transactional
+class OrderBulkLoaderTest {
+
+    @Autowired
+    OrderBulkLoader orderBulkLoader;
+    @Autowired
+    BatchCounter batchCounter;
+
+    @Test
+    void 배치_INSERT() {
+        //given
+        batchCounter.reset();
+
+        //when
+        orderBulkLoader.load(2_000);
+
+        //then
+        //주문 2000건 = 배송 2000 + 주문 2000 + 주문상품 2000~6000 + 요약 2000 + 회원/상품 2000
+        assertThat(batchCounter.added.get()).isGreaterThanOrEqualTo(10_000);
+        //batch_size 100, 청크 끝의 자투리 배치를 감안해도 평균 50건 이상씩 묶인다
+        assertThat(batchCounter.executed.get()).isLessThan(batchCounter.added.get() / 50);
+        //clear 이후에도 회원/상품 프록시를 초기화하지 않는다
+        assertThat(batchCounter.memberOrItemSelects.get()).isZero();
+    }
+
+    @TestConfiguration
+    static class Config {
+        //p6spy 데이터소스 데코레이터가 JdbcEventListener 빈을 등록한다
+        @Bean
+        BatchCounter batchCounter() {
+            return new BatchCounter();
+        }
+    }
+
+    static class BatchCounter extends JdbcEventListener {
+
+        private static final Pattern MEMBER_OR_ITEM_SELECT =
+                Pattern.compile("^select .* from (member|item) ", Pattern.CASE_INSENSITIVE);
+
+        final AtomicInteger added = new AtomicInteger();
+        final AtomicInteger executed = new AtomicInteger();
+        final AtomicInteger memberOrItemSelects = new AtomicInteger();
+
+        void reset() {
+            added.set(0);
+            executed.set(0);
+            memberOrItemSelects.set(0);
+        }
+
+        @Override
+        public void onAfterExecuteQuery(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                        SQLException e) {
+            if (MEMBER_OR_ITEM_SELECT.matcher(statementInformation.getSql()).find()) {
+                memberOrItemSelects.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onAfterAddBatch(PreparedStatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            added.incrementAndGet();
+        }
+
+        @Override
+        public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos,
+                                        int[] updateCounts, SQLException e) {
+            executed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+class OrderApiControllerTest {
+
+    @Autowired
+    OrderApiController orderApiController;
+    @MockBean
+    OrderQueryRepository orderQueryRepository;
+
+    @Test
+    void 스트리밍_중간에_실패하면_배열을_닫지_않는다() {
+        //given
+        doAnswer(invocation -> {
+            Consumer<OrderQueryDto> consumer = invocation.getArgument(0);
+            consumer.accept(order(1L));
+            consumer.accept(order(2L));
+            throw new IllegalStateException("db connection lost");
+        }).when(orderQueryRepository).streamAllByDto(any());
+        StreamingResponseBody body = orderApiController.ordersV6_stream().getBody();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when, then
+        assertThatThrownBy(() -> body.writeTo(out))
+                .isInstanceOf(IllegalStateException.class);
+        String written = out.toString(StandardCharsets.UTF_8).trim();
+        assertThat(written).doesNotEndWith("]");
+    }
+
+    @Test
+    void 스트리밍_정상_종료() throws Exception {
+        //given
+        doAnswer(invocation -> {
+            Consumer<OrderQueryDto> consumer = invocation.getArgument(0);
+            consumer.accept(order(1L));
+            consumer.accept(order(2L));
+            return null;
+        }).when(orderQueryRepository).streamAllByDto(any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        orderApiController.ordersV6_stream().getBody().writeTo(out);
+
+        //then
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertThat(written).startsWith("[").endsWith("]");
+        assertThat(written).contains("\"orderId\":1", "\"orderId\":2");
+    }
+
+    private static OrderQueryDto order(Long id) {
+        OrderQueryDto dto = new OrderQueryDto(id, "userA", LocalDateTime.now(), OrderStatus.ORDER, null);
+        dto.setOrderItems(new ArrayList<>());
+        return dto;
+    }
+}
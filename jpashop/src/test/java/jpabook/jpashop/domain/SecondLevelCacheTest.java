@@ -0,0 +1,126 @@
+package jpabook.jpashop.domain;
+
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.service.ItemService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 트랜잭션 사이에서 동작하므로 테스트 트랜잭션(@Transactional)을 쓰지 않는다
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TransactionTemplate tx;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void 상품_캐시_적중과_수정반영() {
+        //given
+        Long itemId = tx.execute(status -> {
+            Book book = new Book();
+            book.setName("캐시");
+            book.setPrice(1000);
+            book.setStockQuantity(10);
+            em.persist(book);
+            return book.getId();
+        });
+        emf.getCache().evict(Item.class, itemId);
+        CacheRegionStatistics region = emf.unwrap(SessionFactory.class).getStatistics()
+                .getCacheRegionStatistics("item");
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+
+        //when
+        itemService.findOne(itemId);
+        itemService.findOne(itemId);
+
+        //then
+        assertThat(region.getMissCount() - misses).isEqualTo(1);
+        assertThat(region.getHitCount() - hits).isEqualTo(1);
+
+        //when
+        itemService.updateItem(itemId, "수정", 2000, 5);
+        Item item = itemService.findOne(itemId);
+
+        //then
+        assertThat(item.getName()).isEqualTo("수정");
+        assertThat(item.getPrice()).isEqualTo(2000);
+        assertThat(emf.getCache().contains(Item.class, itemId)).isTrue();
+    }
+
+    @Test
+    void 벌크_재고차감은_상품_캐시영역_전체를_비운다() {
+        //given
+        Long itemId = tx.execute(status -> createBook("차감"));
+        Long otherId = tx.execute(status -> createBook("다른상품"));
+        itemService.findOne(itemId);
+        itemService.findOne(otherId);
+        assertThat(emf.getCache().contains(Item.class, otherId)).isTrue();
+
+        //when
+        tx.executeWithoutResult(status -> itemRepository.removeStock(itemId, 1));
+
+        //then
+        //차감하지 않은 상품까지 캐시에서 빠진다 (CONDITIONAL_UPDATE 와 상품 캐시는 같이 쓰지 않는다)
+        assertThat(emf.getCache().contains(Item.class, itemId)).isFalse();
+        assertThat(emf.getCache().contains(Item.class, otherId)).isFalse();
+        assertThat(itemService.findOne(itemId).getStockQuantity()).isEqualTo(9);
+    }
+
+    @Test
+    void 카테고리_컬렉션_캐시() {
+        //given
+        Long parentId = tx.execute(status -> {
+            Category parent = new Category();
+            parent.setName("부모");
+            Category child = new Category();
+            child.setName("자식");
+            parent.addChildCategory(child);
+            em.persist(parent);
+            em.persist(child);
+            return parent.getId();
+        });
+
+        //when
+        tx.executeWithoutResult(status -> em.find(Category.class, parentId).getChild().size());
+
+        //then
+        assertThat(emf.getCache().contains(Category.class, parentId)).isTrue();
+        CacheRegionStatistics region = emf.unwrap(SessionFactory.class).getStatistics()
+                .getCacheRegionStatistics("category-child");
+        long hits = region.getHitCount();
+        tx.executeWithoutResult(status ->
+                assertThat(em.find(Category.class, parentId).getChild()).extracting(Category::getName)
+                        .containsExactly("자식"));
+        assertThat(region.getHitCount() - hits).isEqualTo(1);
+    }
+
+    private Long createBook(String name) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        return book.getId();
+    }
+}
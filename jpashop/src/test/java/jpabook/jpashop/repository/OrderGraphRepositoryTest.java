@@ -0,0 +1,83 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrderGraphRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderGraphRepository orderGraphRepository;
+
+    @Test
+    void 페이지_쿼리수() {
+        //given
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울", "x", "x"));
+        em.persist(member);
+
+        Book[] books = new Book[4];
+        for (int i = 0; i < books.length; i++) {
+            books[i] = new Book();
+            books[i].setName("책" + i);
+            books[i].setPrice(10000);
+            books[i].setStockQuantity(1000);
+            em.persist(books[i]);
+        }
+        for (int i = 0; i < 30; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            Order order = Order.createOrder(member, delivery,
+                    OrderItem.createOrderItem(books[i % 4], 10000, 1),
+                    OrderItem.createOrderItem(books[(i + 1) % 4], 10000, 2));
+            em.persist(order);
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        List<OrderQueryDto> orders = orderGraphRepository.findAllWithItem(0, 20, 10);
+
+        //then
+        //페이지 1 + orderItems/item 2 (20건 / 10)
+        assertThat(orders).hasSize(20);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(2));
+        assertThat(orders.get(0).getName()).isEqualTo("회원1");
+        assertThat(orders.get(0).getOrderItems()).extracting(OrderItemQueryDto::getItemName)
+                .containsExactly("책0", "책1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        //DTO 조회라 공유되는 영속성 컨텍스트에 주문을 올리지 않는다
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void IN_파라미터_크기_맞춤() {
+        assertThat(OrderGraphRepository.pad(List.of(1L, 2L, 3L)))
+                .containsExactly(1L, 2L, 3L, 3L, 3L, 3L, 3L, 3L, 3L, 3L);
+        assertThat(OrderGraphRepository.bucketSize(1)).isEqualTo(1);
+        assertThat(OrderGraphRepository.bucketSize(51)).isEqualTo(100);
+        assertThat(OrderGraphRepository.chunk(List.of(1L, 2L, 3L), 2)).containsExactly(List.of(1L, 2L), List.of(3L));
+    }
+}
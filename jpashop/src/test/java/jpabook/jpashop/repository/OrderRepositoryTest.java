@@ -0,0 +1,112 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.Item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrderRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Test
+    void 조건_조합별_검색() {
+        //given
+        Member a = createMember("검색회원A");
+        Member b = createMember("검색회원B");
+        Book book = createBook();
+        Order a1 = createOrder(a, book);
+        Order a2 = createOrder(a, book);
+        Order b1 = createOrder(b, book);
+        a2.cancel();
+        em.flush();
+        em.clear();
+
+        //when, then
+        assertThat(ids(orderRepository.findAll(OrderSearch.of(null, "검색회원A"))))
+                .containsExactly(a2.getId(), a1.getId());
+        assertThat(ids(orderRepository.findAll(OrderSearch.of(OrderStatus.ORDER, "검색회원A"))))
+                .containsExactly(a1.getId());
+        assertThat(ids(orderRepository.findAll(OrderSearch.of(OrderStatus.CANCLE, null))))
+                .contains(a2.getId())
+                .doesNotContain(a1.getId(), b1.getId());
+        assertThat(ids(orderRepository.findAll(new OrderSearch())))
+                .contains(a1.getId(), a2.getId(), b1.getId());
+    }
+
+    @Test
+    void 키셋_페이징() {
+        //given
+        Member member = createMember("페이징회원");
+        Book book = createBook();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, createOrder(member, book).getId());
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        OrderSearch search = OrderSearch.of(null, "페이징회원");
+        List<Long> actual = new ArrayList<>();
+        OrderCursor cursor = null;
+        while (true) {
+            List<Order> page = orderRepository.search(search, cursor, 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            actual.addAll(ids(page));
+            cursor = OrderCursor.after(page.get(page.size() - 1));
+        }
+
+        //then
+        //같은 시각에 만든 주문은 id 역순
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private List<Long> ids(List<Order> orders) {
+        List<Long> ids = new ArrayList<>();
+        for (Order order : orders) {
+            ids.add(order.getId());
+        }
+        return ids;
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "x", "x"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook() {
+        Book book = new Book();
+        book.setName("책");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+
+    private Order createOrder(Member member, Book book) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 1000, 1));
+        em.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.repository.order.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 청크 조회는 다른 커넥션에서 실행되므로 트랜잭션 없이 initDb 가 커밋한 주문으로 확인한다
+ */
+@SpringBootTest
+class OrderQueryRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+
+    OrderQueryRepository repository;
+
+    @BeforeEach
+    void before() {
+        //주문 1건씩 청크로 나눈다
+        repository = new OrderQueryRepository(em, emf, 1);
+    }
+
+    @AfterEach
+    void after() {
+        repository.shutdown();
+    }
+
+    @Test
+    void 청크_병렬_조회() {
+        List<OrderQueryDto> result = repository.findAllByDto_optimization();
+
+        assertThat(result).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(result).allSatisfy(o -> assertThat(o.getOrderItems()).hasSize(2));
+        //주문마다 쿼리하는 v4 와 같은 결과
+        assertThat(result).usingRecursiveComparison().isEqualTo(repository.findOrderQueryDtos());
+    }
+
+    @Test
+    void 스트리밍_조회() {
+        List<OrderQueryDto> result = new ArrayList<>();
+        repository.streamAllByDto(result::add);
+
+        assertThat(result).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(result).usingRecursiveComparison().isEqualTo(repository.findAllByDto_optimization());
+    }
+}
@@ -0,0 +1,86 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.Item.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class CategoryServiceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    CategoryService categoryService;
+
+    @Test
+    void 하위트리_상품조회() {
+        //given
+        Long root = categoryService.saveCategory(null, "전체");
+        Long a = categoryService.saveCategory(root, "도서");
+        Long a1 = categoryService.saveCategory(a, "소설");
+        Long a2 = categoryService.saveCategory(a, "IT");
+        Long b = categoryService.saveCategory(root, "음반");
+
+        Book novel = addBook(a1, "소설책");
+        Book it = addBook(a2, "IT책");
+        addBook(b, "음반");
+        //같은 상품이 하위 트리의 여러 카테고리에 있어도 한 번만
+        em.find(Category.class, a).getItems().add(it);
+
+        //when
+        List<?> items = categoryService.findItemsInSubtree(a);
+
+        //then
+        assertThat(em.find(Category.class, a1).getPath()).isEqualTo("/" + root + "/" + a + "/" + a1 + "/");
+        assertThat(items).containsExactly(novel, it);
+        assertThat(categoryService.findItemsInSubtree(root)).hasSize(3);
+    }
+
+    @Test
+    void 트리_스냅샷() {
+        //given
+        Long root = categoryService.saveCategory(null, "전체");
+        Long a = categoryService.saveCategory(root, "도서");
+        Long a1 = categoryService.saveCategory(a, "소설");
+        Long b = categoryService.saveCategory(root, "음반");
+        em.flush();
+
+        //when
+        CategoryTree tree = categoryService.getTree();
+
+        //then
+        assertThat(tree.isAncestorOrSelf(root, a1)).isTrue();
+        assertThat(tree.isAncestorOrSelf(a, a1)).isTrue();
+        assertThat(tree.isAncestorOrSelf(b, a1)).isFalse();
+        assertThat(tree.isAncestorOrSelf(a1, a)).isFalse();
+        assertThat(tree.parentId(a1)).isEqualTo(a);
+        assertThat(tree.subtreeIds(a)).containsExactly(a, a1);
+    }
+
+    @Test
+    void 순환_데이터_거부() {
+        List<Object[]> rows = List.of(new Object[]{1L, 2L}, new Object[]{2L, 1L});
+        assertThatThrownBy(() -> CategoryTree.of(rows))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private Book addBook(Long categoryId, String name) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        em.find(Category.class, categoryId).getItems().add(book);
+        return book;
+    }
+}
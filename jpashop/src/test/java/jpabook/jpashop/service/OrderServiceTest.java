@@ -8,13 +8,19 @@ import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.stock.StockStrategy;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -102,4 +108,67 @@ class OrderServiceTest {
         //then
         //fail("재고 수량 부족 예외가 발생해야 함 ");
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @EnumSource(StockStrategy.class)
+    public void 장바구니주문(StockStrategy strategy) {
+        //given
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울","x","x"));
+        em.persist(member);
+
+        Book[] books = new Book[3];
+        for (int i = 0; i < books.length; i++) {
+            books[i] = new Book();
+            books[i].setName("책" + i);
+            books[i].setPrice(1000 * (i + 1));
+            books[i].setStockQuantity(10);
+            em.persist(books[i]);
+        }
+
+        Map<Long, Integer> itemCounts = new LinkedHashMap<>();
+        itemCounts.put(books[2].getId(), 3);
+        itemCounts.put(books[0].getId(), 1);
+        itemCounts.put(books[1].getId(), 2);
+
+        Integer batchSize = em.unwrap(Session.class).getJdbcBatchSize();
+
+        //when
+        Long orderId = orderService.checkout(member.getId(), itemCounts, strategy);
+        em.flush();
+
+        //then
+        //같은 세션을 쓰는 이후 작업에 배치 크기가 남지 않는다
+        assertThat(em.unwrap(Session.class).getJdbcBatchSize()).isEqualTo(batchSize);
+        Order getOrder = orderRepository.findOne(orderId);
+        assertThat(getOrder.getOrderItems()).extracting(orderItem -> orderItem.getItem().getId())
+                .containsExactly(books[0].getId(), books[1].getId(), books[2].getId());
+        assertThat(getOrder.getTotalPrice()).isEqualTo(1000 + 2000 * 2 + 3000 * 3);
+        assertThat(books).extracting(Item::getStockQuantity).containsExactly(9, 8, 7);
+    }
+
+    @Test
+    public void 장바구니주문_재고수량초과() {
+        //given
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울","x","x"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Integer batchSize = em.unwrap(Session.class).getJdbcBatchSize();
+
+        //when
+        assertThatThrownBy(() -> orderService.checkout(member.getId(), Map.of(book.getId(), 11)))
+                .isInstanceOf(NotEnoughStockException.class);
+
+        //then
+        assertThat(em.unwrap(Session.class).getJdbcBatchSize()).isEqualTo(batchSize);
+    }
+}
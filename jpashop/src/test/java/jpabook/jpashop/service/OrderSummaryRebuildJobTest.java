@@ -0,0 +1,104 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrderSummaryRebuildJobTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderSummaryRepository orderSummaryRepository;
+    @Autowired
+    OrderSummaryRebuildJob orderSummaryRebuildJob;
+
+    @Test
+    void 주문_취소시_요약_갱신() {
+        //given
+        Member member = createMember("요약회원");
+        Book book1 = createBook("책1", 1000);
+        Book book2 = createBook("책2", 2000);
+
+        //when
+        Map<Long, Integer> itemCounts = new LinkedHashMap<>();
+        itemCounts.put(book1.getId(), 1);
+        itemCounts.put(book2.getId(), 3);
+        Long orderId = orderService.checkout(member.getId(), itemCounts);
+        orderService.cancelOrder(orderId);
+        em.flush();
+
+        //then
+        OrderSummary summary = orderSummaryRepository.findOne(orderId);
+        assertThat(summary.getMemberName()).isEqualTo("요약회원");
+        assertThat(summary.getTotalPrice()).isEqualTo(1000 + 2000 * 3);
+        assertThat(summary.getItemCount()).isEqualTo(4);
+        assertThat(summary.getMainItemName()).isEqualTo("책1");
+        assertThat(summary.getStatus()).isEqualTo(OrderStatus.CANCLE);
+    }
+
+    @Test
+    void 청크단위_재구성() {
+        //given
+        Member member = createMember("재구성회원");
+        Book book = createBook("책", 1000);
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            orderIds.add(orderService.order(member.getId(), book.getId(), i));
+        }
+        orderService.cancelOrder(orderIds.get(0));
+        em.flush();
+        orderSummaryRepository.deleteAll(orderIds);
+        em.clear();
+
+        //when
+        orderSummaryRebuildJob.rebuild(2);
+
+        //then
+        OrderSearch search = new OrderSearch();
+        search.setMemberName("재구성회원");
+        List<OrderSummary> summaries = orderService.findOrderSummaries(search);
+        assertThat(summaries).extracting(OrderSummary::getOrderId)
+                .containsExactly(orderIds.get(4), orderIds.get(3), orderIds.get(2), orderIds.get(1), orderIds.get(0));
+        assertThat(summaries).extracting(OrderSummary::getTotalPrice)
+                .containsExactly(5000, 4000, 3000, 2000, 1000);
+        assertThat(summaries.get(4).getStatus()).isEqualTo(OrderStatus.CANCLE);
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "x", "x"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+}
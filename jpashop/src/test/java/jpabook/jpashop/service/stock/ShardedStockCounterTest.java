@@ -0,0 +1,86 @@
+package jpabook.jpashop.service.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedStockCounterTest {
+
+    @Test
+    void 동시차감_초과없음() throws InterruptedException {
+        ShardedStockCounter counter = new ShardedStockCounter(10_000, 8);
+        AtomicInteger acquired = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int t = 0; t < 16; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (counter.tryAcquire(1)) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(acquired.get()).isEqualTo(10_000);
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void 여러칸에서_모아서_차감() {
+        //칸마다 2개씩 (8 / 4)
+        ShardedStockCounter counter = new ShardedStockCounter(8, 4);
+
+        assertThat(counter.tryAcquire(5)).isTrue();
+        assertThat(counter.available()).isEqualTo(3);
+        assertThat(counter.tryAcquire(4)).isFalse();
+        assertThat(counter.available()).isEqualTo(3);
+
+        counter.release(2);
+        assertThat(counter.drain()).isEqualTo(5);
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void 비운_뒤_돌려받은_수량은_afterDrain_으로() {
+        //given
+        AtomicLong returned = new AtomicLong();
+        ShardedStockCounter counter = new ShardedStockCounter(8, 4, returned::addAndGet);
+        assertThat(counter.tryAcquire(3)).isTrue();
+
+        //when
+        long drained = counter.drain();
+        counter.release(3);
+
+        //then
+        assertThat(drained).isEqualTo(5);
+        assertThat(returned.get()).isEqualTo(3);
+        assertThat(counter.tryAcquire(1)).isFalse();
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void 비운_뒤_돌려받기_거절() {
+        ShardedStockCounter counter = new ShardedStockCounter(4, 2);
+        counter.tryAcquire(1);
+        counter.drain();
+
+        assertThatThrownBy(() -> counter.release(1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 칸_개수_검증() {
+        assertThatThrownBy(() -> new ShardedStockCounter(10, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
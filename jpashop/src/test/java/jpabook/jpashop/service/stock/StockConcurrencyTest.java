@@ -0,0 +1,168 @@
+package jpabook.jpashop.service.stock;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Item.Book;
+import jpabook.jpashop.domain.Item.Item;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.service.OrderFacade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 상품에 동시 주문, 재고보다 많이 팔리지 않는지 확인
+ * 트랜잭션을 스레드마다 따로 써야 하므로 테스트 트랜잭션(@Transactional)을 쓰지 않는다
+ */
+@SpringBootTest(properties = "jpashop.stock.max-attempts=100")
+class StockConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockConcurrencyTest.class);
+
+    private static final int STOCK = 50;
+    private static final int ORDERS = 100;
+    private static final int THREADS = 32;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    TransactionTemplate tx;
+    @Autowired
+    OrderFacade orderFacade;
+    @Autowired
+    FlashSaleService flashSaleService;
+
+    @ParameterizedTest
+    @EnumSource(StockStrategy.class)
+    void 동시주문_초과판매_없음(StockStrategy strategy) throws InterruptedException {
+        //given
+        Long memberId = createMember();
+        Long itemId = createItem(STOCK);
+
+        //when
+        Result result = run(() -> orderFacade.order(memberId, itemId, 1, strategy));
+
+        //then
+        assertThat(result.others.get()).isZero();
+        assertThat(result.success.get()).isEqualTo(STOCK);
+        assertThat(result.notEnough.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(stockOf(itemId)).isZero();
+        assertThat(orderedCount(itemId)).isEqualTo(STOCK);
+    }
+
+    @Test
+    void 한정판매_초과판매_없음() throws InterruptedException {
+        //given
+        Long memberId = createMember();
+        Long itemId = createItem(STOCK + 10);
+        flashSaleService.open(itemId, STOCK);
+
+        //when
+        Result result = run(() -> flashSaleService.order(memberId, itemId, 1));
+
+        //then
+        assertThat(result.others.get()).isZero();
+        assertThat(result.success.get()).isEqualTo(STOCK);
+        assertThat(flashSaleService.available(itemId)).isZero();
+        assertThat(flashSaleService.close(itemId)).isZero();
+        assertThat(stockOf(itemId)).isEqualTo(10);
+        assertThat(orderedCount(itemId)).isEqualTo(STOCK);
+    }
+
+    @Test
+    void 한정판매_수량_검증() {
+        //given
+        Long itemId = createItem(10);
+
+        //when, then
+        assertThatThrownBy(() -> flashSaleService.open(itemId, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> flashSaleService.open(itemId, -5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stockOf(itemId)).isEqualTo(10);
+    }
+
+    private Result run(Supplier<Long> order) throws InterruptedException {
+        Result result = new Result();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    order.get();
+                    result.success.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    result.notEnough.incrementAndGet();
+                } catch (Exception e) {
+                    result.others.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        log.info("orders={} success={} elapsed={}ms throughput={}/s",
+                ORDERS, result.success.get(), elapsed / 1_000_000, (long) (ORDERS * 1e9 / elapsed));
+        return result;
+    }
+
+    private Long createMember() {
+        return tx.execute(status -> {
+            Member member = new Member();
+            member.setName("회원1");
+            member.setAddress(new Address("서울", "x", "x"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createItem(int stock) {
+        return tx.execute(status -> {
+            Book book = new Book();
+            book.setName("한정판");
+            book.setPrice(10000);
+            book.setStockQuantity(stock);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+
+    private int stockOf(Long itemId) {
+        return tx.execute(status -> em.find(Item.class, itemId).getStockQuantity());
+    }
+
+    private long orderedCount(Long itemId) {
+        return tx.execute(status -> em.createQuery(
+                        "select coalesce(sum(oi.count), 0) from OrderItem oi where oi.item.id = :itemId", Long.class)
+                .setParameter("itemId", itemId)
+                .getSingleResult());
+    }
+
+    static class Result {
+        final AtomicInteger success = new AtomicInteger();
+        final AtomicInteger notEnough = new AtomicInteger();
+        final AtomicInteger others = new AtomicInteger();
+    }
+}